@@ -4,17 +4,24 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.geteway.booking.dto.BookingRequestDto;
+import ru.practicum.geteway.booking.dto.ExportFormat;
 import ru.practicum.geteway.booking.dto.State;
 import ru.practicum.geteway.utils.Constants;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Tag(name = "BookingController", description = "Бронирование вещи")
 @RestController
@@ -23,6 +30,8 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @GetMapping
@@ -34,16 +43,36 @@ public class BookingController {
                     " * PAST (англ. «завершённые»)\n" +
                     " * FUTURE (англ. «будущие»)\n" +
                     " * WAITING (англ. «ожидающие подтверждения»)\n" +
-                    " * REJECTED (англ. «отклонённые»)"
+                    " * REJECTED (англ. «отклонённые»)\n" +
+                    "Вместо from можно передать cursor: пустой cursor отдает первую страницу, " +
+                    "токен следующей страницы приходит в заголовке X-Next-Cursor, " +
+                    "на последней странице заголовка нет."
     )
-    public ResponseEntity<Object> getAllReservation(@RequestHeader(Constants.HEADER) long userId,
+    public Mono<ResponseEntity<Object>> getAllReservation(@RequestHeader(Constants.HEADER) long userId,
                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    @Operation(
+            summary = "Выгрузка всех бронирований вещей текущего пользователя.",
+            description = "format=ndjson (по умолчанию) - по объекту бронирования в строке, format=csv - таблица " +
+                    "с заголовком. Строки передаются по мере чтения из базы сервера, без страниц."
+    )
+    public Mono<ResponseEntity<StreamingResponseBody>> exportForOwner(@RequestHeader(Constants.HEADER) long userId,
+                                                                      @RequestParam(name = "format",
+                                                                              defaultValue = "ndjson")
+                                                                      String formatParam) {
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + formatParam));
+        log.info("Export bookings as {}, ownerId={}", format, userId);
+        return bookingClient.exportForOwner(userId, format);
     }
 
     @PostMapping
@@ -51,22 +80,38 @@ public class BookingController {
             summary = "Добавляет запрос на бронирование вещи.",
             description = "После создания запрос находится в статусе WAITING — «ожидает подтверждения»."
     )
-    public ResponseEntity<Object> addReservation(@RequestHeader(Constants.HEADER) long userId,
+    public Mono<ResponseEntity<Object>> addReservation(@RequestHeader(Constants.HEADER) long userId,
                                                  @RequestBody @Valid BookingRequestDto requestDto,
                                                  BindingResult result) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.create(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Добавляет пакет запросов на бронирование вещей.",
+            description = "Пакет от 1 до " + MAX_BATCH_SIZE + " бронирований проверяется целиком: " +
+                    "при ошибке в любом элементе сервер не вызывается. Результаты возвращаются в порядке запроса: " +
+                    "status 200 и созданное бронирование или код и error для каждого элемента."
+    )
+    public Mono<ResponseEntity<Object>> addReservations(@RequestHeader(Constants.HEADER) long userId,
+                                                        @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                        List<@Valid BookingRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.createAll(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
     @Operation(
             summary = "Получение данных о конкретном бронировании (включая его статус).\n",
             description = "Может быть выполнено либо автором бронирования, либо владельцем вещи, к которой относится бронирование"
     )
-    public ResponseEntity<Object> getBooking(@RequestHeader(Constants.HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(Constants.HEADER) long userId,
+                                             @PathVariable Long bookingId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getById(userId, bookingId);
+        return bookingClient.getById(userId, bookingId, ifNoneMatch);
     }
 
 
@@ -75,7 +120,7 @@ public class BookingController {
             summary = "Обновляет статус бронирования.",
             description = "Подтверждение или отклонение запроса на бронирование."
     )
-    public ResponseEntity<Object> updateStatus(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> updateStatus(@RequestHeader(Constants.HEADER) Long userId,
                                                @PathVariable("bookingId") Long bookingId,
                                                @RequestParam("approved") Boolean approved) {
         log.info("Получен запрос к эндпоинту /bookings updateStatus с headers {}, с bookingId {}, статус {}",
@@ -87,16 +132,18 @@ public class BookingController {
     @GetMapping("/owner")
     @Operation(
             summary = "Получение списка бронирований для всех вещей текущего пользователя.",
-            description = "Получение списка бронирований для всех вещей текущего пользователя."
+            description = "Получение списка бронирований для всех вещей текущего пользователя. " +
+                    "Поддерживает cursor так же, как GET /bookings."
     )
-    public ResponseEntity<Object> getReservationForOwner(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getReservationForOwner(@RequestHeader(Constants.HEADER) Long userId,
                                                          @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                          @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                         @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+                                                         @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", stateParam);
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllReserve(userId, state, from, size);
+        return bookingClient.getAllReserve(userId, state, from, size, cursor);
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.geteway.booking.dto;
+
+import java.util.Optional;
+
+/**
+ * Класс описывает ExportFormat - формат выгрузки бронирований
+ * NDJSON - по объекту бронирования в строке,
+ * CSV - таблица с заголовком.
+ */
+public enum ExportFormat {
+    NDJSON, CSV;
+
+    public static Optional<ExportFormat> from(String stringFormat) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(stringFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -5,8 +5,10 @@ package ru.practicum.geteway.booking.dto;
  * WAITING — новое бронирование, ожидает одобрения/подтверждения,
  * APPROVED — бронирование подтверждено владельцем,
  * REJECTED — бронирование отклонено владельцем,
- * CANCELED — бронирование отменено создателем.
+ * CANCELED — бронирование отменено создателем,
+ * EXPIRED — бронирование не подтверждено до начала,
+ * COMPLETED — подтвержденное бронирование закончилось.
 * */
 public enum Status {
-    WAITING, APPROVED, REJECTED, CANCELED
+    WAITING, APPROVED, REJECTED, CANCELED, EXPIRED, COMPLETED
 }
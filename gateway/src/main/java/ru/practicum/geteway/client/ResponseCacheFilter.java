@@ -0,0 +1,232 @@
+package ru.practicum.geteway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.Value;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.geteway.utils.Constants;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс описывает ResponseCacheFilter - кэш ответов 200 OK на GET-запросы к серверу по ключу
+ * (ресурс, путь с query, X-Sharer-User-Id). Любой другой запрос шлюза после ответа сервера сбрасывает
+ * в своем ресурсе ответы по тому же id и списки (/items/5 - /items/5, /items, /items/search),
+ * а в ресурсах, ответы которых включают его данные (INVALIDATED_BY_WRITE), - все ответы.
+ * Изменения в обход шлюза видны не позже чем через ttl кэша. Если If-None-Match запроса совпадает
+ * с ETag сохраненного ответа, шлюз сам отвечает 304 Not Modified без тела.
+ * Сброс не перебирает кэш: в ключ входят поколения ресурса (Generations), запись только сдвигает их,
+ * и старые ответы становятся недостижимы, а из кэша уходят по размеру или ttl.
+ */
+public class ResponseCacheFilter implements ExchangeFilterFunction {
+
+    /**
+     * Ресурсы, ответы которых устаревают после изменения ресурса-ключа: вещь показывает последнее
+     * и следующее бронирование, запрос - вещи-ответы, а удаление пользователя удаляет его вещи,
+     * запросы и бронирования.
+     */
+    private static final Map<String, Set<String>> INVALIDATED_BY_WRITE = Map.of(
+            "users", Set.of("users", "items", "requests", "bookings"),
+            "items", Set.of("items", "requests"),
+            "bookings", Set.of("bookings", "items"),
+            "requests", Set.of("requests"));
+
+    private static final Set<String> ALL_FAMILIES = INVALIDATED_BY_WRITE.get("users");
+
+    /**
+     * Не больше стольких id ресурса с собственным поколением, дальше ресурс сбрасывается целиком.
+     */
+    private static final int MAX_TRACKED_IDS = 10_000;
+
+    private static final ExchangeStrategies STRATEGIES = ExchangeStrategies.withDefaults();
+
+    private final Cache<Key, CachedResponse> cache;
+
+    private final Set<String> families;
+
+    private final String basePath;
+
+    private final Map<String, Generations> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Источник значений поколений: значения не повторяются, поэтому ключ устаревшего ответа не совпадет
+     * с ключом нового, даже если поколения id были очищены.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    public ResponseCacheFilter(Cache<Key, CachedResponse> cache, Set<String> families, @Nullable String basePath) {
+        this.cache = cache;
+        this.families = families;
+        this.basePath = basePath == null ? "" : basePath;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String[] segments = segments(request.url());
+        String family = segments.length > 0 ? segments[0] : "";
+        if (HttpMethod.GET.equals(request.method())) {
+            return families.contains(family) ? cachedGet(segments, request, next) : next.exchange(request);
+        }
+        if (HttpMethod.HEAD.equals(request.method()) || HttpMethod.OPTIONS.equals(request.method())) {
+            return next.exchange(request);
+        }
+        return next.exchange(request)
+                .doFinally(signal -> invalidate(family, resourceId(segments)));
+    }
+
+    private Mono<ClientResponse> cachedGet(String[] segments, ClientRequest request, ExchangeFunction next) {
+        URI url = request.url();
+        String family = segments[0];
+        String pathAndQuery = url.getRawQuery() == null ? url.getRawPath() : url.getRawPath() + "?" + url.getRawQuery();
+        String resourceId = resourceId(segments);
+        String userId = request.headers().getFirst(Constants.HEADER);
+        Key key = key(family, resourceId, pathAndQuery, userId);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.matches(request.headers().getIfNoneMatch())
+                    ? cached.toNotModifiedResponse() : cached.toClientResponse());
+        }
+
+        return next.exchange(request).flatMap(response -> {
+            if (response.statusCode() != HttpStatus.OK) {
+                return Mono.just(response);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(response.headers().asHttpHeaders());
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        CachedResponse fresh = new CachedResponse(response.statusCode(), headers, body);
+                        cache.put(key, fresh);
+                        if (!key.equals(key(family, resourceId, pathAndQuery, userId))) {
+                            cache.invalidate(key);
+                        }
+                        return fresh.toClientResponse();
+                    });
+        });
+    }
+
+    /**
+     * Ответ GET, во время которого ресурс менялся, получает ключ со старыми поколениями: после put ключ
+     * сравнивается с текущим, и такой ответ убирается из кэша.
+     */
+    private Key key(String family, @Nullable String resourceId, String pathAndQuery, @Nullable String userId) {
+        Generations current = generations(family);
+        long familyGeneration = current.family;
+        long generation = resourceId == null ? current.list
+                : current.resources.getOrDefault(resourceId, 0L);
+        return new Key(family, familyGeneration, resourceId, generation, pathAndQuery, userId);
+    }
+
+    /**
+     * Сдвигает поколения за O(1) от размера кэша: в своем ресурсе - id и списков, в зависимых - всего ресурса.
+     */
+    private void invalidate(String family, @Nullable String resourceId) {
+        Set<String> affected = INVALIDATED_BY_WRITE.getOrDefault(family, ALL_FAMILIES);
+        affected.stream()
+                .filter(name -> !name.equals(family))
+                .forEach(name -> generations(name).invalidateAll(clock.incrementAndGet()));
+        if (resourceId == null) {
+            generations(family).invalidateAll(clock.incrementAndGet());
+        } else {
+            generations(family).invalidate(resourceId, clock.incrementAndGet());
+        }
+    }
+
+    private Generations generations(String family) {
+        return generations.computeIfAbsent(family, name -> new Generations());
+    }
+
+    /**
+     * Сегменты пути относительно адреса сервера: первый - ресурс, второй - id, если он числовой.
+     */
+    private String[] segments(URI url) {
+        String path = url.getRawPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        return path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+    }
+
+    @Nullable
+    private static String resourceId(String[] segments) {
+        return segments.length > 1 && !segments[1].isEmpty() && segments[1].chars().allMatch(Character::isDigit)
+                ? segments[1] : null;
+    }
+
+    @Value
+    public static class Key {
+        String family;
+        long familyGeneration;
+        String resourceId;
+        long generation;
+        String pathAndQuery;
+        String userId;
+    }
+
+    /**
+     * Поколения ресурса: family сдвигается при сбросе всего ресурса, list - при любой записи в ресурс,
+     * resources - при записи по id (id без записи имеет поколение 0).
+     */
+    private static class Generations {
+        private volatile long family;
+        private volatile long list;
+        private final Map<String, Long> resources = new ConcurrentHashMap<>();
+
+        void invalidateAll(long generation) {
+            family = generation;
+            resources.clear();
+        }
+
+        void invalidate(String resourceId, long generation) {
+            if (resources.size() >= MAX_TRACKED_IDS) {
+                invalidateAll(generation);
+                return;
+            }
+            list = generation;
+            resources.put(resourceId, generation);
+        }
+    }
+
+    @Value
+    public static class CachedResponse {
+        HttpStatus status;
+        HttpHeaders headers;
+        byte[] body;
+
+        boolean matches(List<String> ifNoneMatch) {
+            String eTag = headers.getETag();
+            return eTag != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.contains("*"));
+        }
+
+        ClientResponse toNotModifiedResponse() {
+            return ClientResponse.create(HttpStatus.NOT_MODIFIED, STRATEGIES)
+                    .headers(target -> target.setETag(headers.getETag()))
+                    .build();
+        }
+
+        ClientResponse toClientResponse() {
+            ClientResponse.Builder response = ClientResponse.create(status, STRATEGIES)
+                    .headers(target -> target.addAll(headers));
+            if (body.length > 0) {
+                response.body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+            }
+            return response.build();
+        }
+    }
+}
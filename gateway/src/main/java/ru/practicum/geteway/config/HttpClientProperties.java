@@ -0,0 +1,30 @@
+package ru.practicum.geteway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Класс описывает HttpClientProperties - настройки общего пула соединений шлюза с сервером shareit-server.
+ * Одновременно к серверу идет не больше maxConnections запросов, еще до maxPending ждут соединения
+ * не дольше connectionRequestTimeout, остальные сразу получают ошибку.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+
+    private int maxConnections = 500;
+
+    private int maxPending = 10_000;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+}
@@ -0,0 +1,55 @@
+package ru.practicum.geteway.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.geteway.client.ResponseCacheFilter;
+
+import java.net.URI;
+
+/**
+ * Класс описывает ResponseCacheConfig - кэш Caffeine для ответов сервера на GET-запросы, который
+ * ResponseCacheFilter подключает ко всем WebClient клиентов шлюза. Попадания, промахи и вытеснения
+ * публикуются в actuator метриками cache.gets, cache.evictions и cache.size с тегом cache=shareit-server.
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    private static final String CACHE_NAME = "shareit-server";
+
+    @Bean
+    public Cache<ResponseCacheFilter.Key, ResponseCacheFilter.CachedResponse> shareItServerResponseCache(
+            ResponseCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        Cache<ResponseCacheFilter.Key, ResponseCacheFilter.CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                cache, CACHE_NAME);
+    }
+
+    @Bean
+    public ResponseCacheFilter responseCacheFilter(
+            @Value("${shareit-server.url}") String serverUrl, ResponseCacheProperties properties,
+            Cache<ResponseCacheFilter.Key, ResponseCacheFilter.CachedResponse> shareItServerResponseCache) {
+        return new ResponseCacheFilter(shareItServerResponseCache, properties.getFamilies(),
+                URI.create(serverUrl).getRawPath());
+    }
+
+    @Bean
+    public WebClientCustomizer responseCacheWebClientCustomizer(ResponseCacheFilter responseCacheFilter) {
+        return builder -> builder.filter(responseCacheFilter);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.geteway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Класс описывает ResponseCacheProperties - настройки кэша ответов сервера на GET-запросы шлюза.
+ * Кэшируются не больше maximumSize ответов и не дольше ttl, только для ресурсов из families
+ * (первый сегмент пути на сервере: users, items, requests, bookings).
+ * Ответы bookings по умолчанию не кэшируются: выборка по state зависит от текущего времени.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    private Duration ttl = Duration.ofSeconds(10);
+
+    private Set<String> families = Set.of("users", "items", "requests");
+}
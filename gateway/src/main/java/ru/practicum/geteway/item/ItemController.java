@@ -4,17 +4,24 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.geteway.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.geteway.item.dto.CommentDto;
 import ru.practicum.geteway.item.dto.ItemDto;
 import ru.practicum.geteway.utils.Constants;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Tag(name = "ItemController", description = "Взаимодействие с вещами")
@@ -25,13 +32,18 @@ import java.util.Map;
 @Validated
 public class ItemController {
 
+    /**
+     * Наибольший период календаря доступности: год с запасом на високосный.
+     */
+    public static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+
     private final ItemClient itemClient;
 
     @Operation(
             summary = "Добавляет вещь в базу данных"
     )
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(Constants.HEADER) Long userId,
                                          @RequestBody @Valid ItemDto dto,
                                          BindingResult result) {
         log.info("Получен запрос к эндпоинту /items create с headers {}", userId);
@@ -42,7 +54,7 @@ public class ItemController {
             summary = "Получает все вещи из базы данных"
     )
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(Constants.HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(Constants.HEADER) Long userId) {
         log.info("Получен запрос к эндпоинту: /items getAll с headers {}", userId);
         return itemClient.getAll(userId);
     }
@@ -51,17 +63,19 @@ public class ItemController {
             summary = "Получает данные вещи по идентификатору"
     )
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@RequestHeader(Constants.HEADER) @Positive Long userId,
-                                          @PathVariable("id") @Positive Long itemId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(Constants.HEADER) @Positive Long userId,
+                                          @PathVariable("id") @Positive Long itemId,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          String ifNoneMatch) {
         log.info("Получен запрос к эндпоинту: /items geById с id={}", itemId);
-        return itemClient.getById(itemId, userId);
+        return itemClient.getById(itemId, userId, ifNoneMatch);
     }
 
     @Operation(
             summary = "Обновление вещи по id"
     )
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(Constants.HEADER) Long userId,
                                          @PathVariable("id") Long itemId,
                                          @RequestBody Map<Object, Object> fields,
                                          BindingResult result) {
@@ -73,20 +87,57 @@ public class ItemController {
             summary = "Удаление вещи по id"
     )
     @DeleteMapping("/{id}")
-    public HttpStatus delete(@PathVariable("id") @Positive Long itemId) {
+    public Mono<HttpStatus> delete(@PathVariable("id") @Positive Long itemId) {
         log.info("Получен запрос к эндпоинту: /items delete с id={}", itemId);
-        itemClient.delete(itemId);
-        return HttpStatus.OK;
+        return itemClient.delete(itemId).thenReturn(HttpStatus.OK);
     }
 
     @Operation(
             summary = "Поиск вещи в базе данных",
-            description = "Поиск происходит по описанию или названию вещи"
+            description = "Поиск доступных вещей по описанию или названию. " +
+                    "Сначала идут вещи, название которых начинается с text, затем содержащие text в названии, " +
+                    "затем в описании. С параметрами start и end - только вещи без бронирований WAITING, APPROVED " +
+                    "и COMPLETED, пересекающихся с периодом [start, end)"
     )
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam("text") String text) {
-        log.info("Получен запрос к эндпоинту: items/search с text: {}", text);
-        return itemClient.search(text);
+    public Mono<ResponseEntity<Object>> search(@RequestParam("text") String text,
+                                         @RequestParam(name = "start", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                         @RequestParam(name = "end", required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                         @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+        log.info("Получен запрос к эндпоинту: items/search с text: {}, start={}, end={}, from={}, size={}",
+                text, start, end, from, size);
+        if (start == null && end == null) {
+            return itemClient.search(text, from, size);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ItemIsNotAvailableForBookingException("Для поиска свободных вещей нужны start и end, " +
+                    "и start должен быть раньше end");
+        }
+        return itemClient.search(text, start, end, from, size);
+    }
+
+    @Operation(
+            summary = "Календарь доступности вещи",
+            description = "Занятые периоды (бронирования WAITING, APPROVED и COMPLETED, слитые вместе) " +
+                    "и свободные окна в периоде [from, to) длиной не больше 366 дней. Периоды обрезаны по границам запроса."
+    )
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable("id") @Positive Long itemId,
+                                                        @RequestParam("from")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam("to")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: /items/{id}/availability с id={}, from={}, to={}", itemId, from, to);
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new ItemIsNotAvailableForBookingException("Период должен начинаться раньше окончания " +
+                    "и быть не длиннее " + MAX_AVAILABILITY_PERIOD.toDays() + " дней");
+        }
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @Operation(
@@ -94,7 +145,7 @@ public class ItemController {
             description = "Может взять только тот пользователь, который брал вещь в аренду"
     )
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(Constants.HEADER) Long userId,
                                              @PathVariable("itemId") @Positive Long itemId,
                                              @Valid @RequestBody CommentDto comment,
                                              BindingResult result) {
@@ -4,10 +4,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.geteway.request.dto.ItemRequestDto;
 import ru.practicum.geteway.utils.Constants;
 
@@ -30,7 +32,7 @@ public class ItemRequestController {
             description = "Основная часть запроса — текст запроса, где пользователь описывает, какая именно вещь ему нужна"
     )
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(Constants.HEADER) @Positive Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(Constants.HEADER) @Positive Long userId,
                                          @Valid @RequestBody ItemRequestDto itemRequestDto,
                                          BindingResult result) {
         log.info("Получен запрос к эндпоинту /requests create с headers {}", userId);
@@ -44,9 +46,11 @@ public class ItemRequestController {
                     " Запросы должны возвращаться в отсортированном порядке от более новых к более старыму"
     )
     @GetMapping
-    public ResponseEntity<Object> getForUser(@RequestHeader(Constants.HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getForUser(@RequestHeader(Constants.HEADER) Long userId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
         log.info("Получен запрос к эндпоинту /requests getForUser с headers {}", userId);
-        return requestClient.getForUser(userId);
+        return requestClient.getForUser(userId, ifNoneMatch);
     }
 
     @Operation(
@@ -56,7 +60,7 @@ public class ItemRequestController {
                     " Для этого нужно передать два параметра: from — индекс первого элемента, начиная с 0, и size — количество элементов для отображения."
     )
     @GetMapping("/all")
-    public ResponseEntity<Object> getOtherUsers(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getOtherUsers(@RequestHeader(Constants.HEADER) Long userId,
                                                       @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
                                                       @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
         log.info("Получен запрос к эндпоинту /requests getOtherUsers с headers {}, from{}, size{}", userId, from, size);
@@ -68,7 +72,7 @@ public class ItemRequestController {
             description = "Происходит в том же формате, что и в эндпоинте GET /requests. Посмотреть данные об отдельном запросе может любой пользователь."
     )
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(Constants.HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(Constants.HEADER) Long userId,
                                                  @PathVariable(name = "requestId") Long requestId) {
         log.info("Получен запрос к эндпоинту /requests getOtherUsers с headers {}, c requestId {}", userId, requestId);
         return requestClient.getRequestById(userId, requestId);
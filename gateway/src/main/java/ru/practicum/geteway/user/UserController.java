@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.geteway.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -29,7 +30,7 @@ public class UserController {
             summary = "Добавляет пользователя в базу данных"
     )
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto user, BindingResult result) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto user, BindingResult result) {
         log.info("Получен запрос к эндпоинту /users create");
         return userClient.create(user);
     }
@@ -38,7 +39,7 @@ public class UserController {
             summary = "Получает всех пользователей"
     )
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("Получен запрос к эндпоинту: /users getAll");
         return userClient.getAll();
     }
@@ -47,7 +48,7 @@ public class UserController {
             summary = "Получает пользователя по идентификатору"
     )
     @GetMapping("/{id}")
-    public ResponseEntity<Object>  getById(@PathVariable("id") Long userId) {
+    public Mono<ResponseEntity<Object>>  getById(@PathVariable("id") Long userId) {
         log.info("Получен запрос к эндпоинту: /users geById с id={}", userId);
         return userClient.getById(userId);
     }
@@ -56,7 +57,7 @@ public class UserController {
             summary = "Обновляет пользователя по идентификатору"
     )
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable("id") Long userId,
+    public Mono<ResponseEntity<Object>> update(@PathVariable("id") Long userId,
                           @RequestBody Map<Object, Object> fields,
                           BindingResult result) {
         log.info("Получен запрос к эндпоинту: /users update с id={}", userId);
@@ -67,10 +68,9 @@ public class UserController {
             summary = "Удаление пользователя по идентификатору"
     )
     @DeleteMapping("/{id}")
-    public HttpStatus delete(@PathVariable("id") @Positive Long userId) {
+    public Mono<HttpStatus> delete(@PathVariable("id") @Positive Long userId) {
         log.info("Получен запрос к эндпоинту: /users delete с id={}", userId);
-        userClient.delete(userId);
-        return HttpStatus.OK;
+        return userClient.delete(userId).thenReturn(HttpStatus.OK);
     }
 
 }
@@ -0,0 +1,97 @@
+package ru.practicum.geteway.client;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.geteway.booking.BookingClient;
+import ru.practicum.geteway.booking.dto.ExportFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookingClientTest {
+
+    private static final byte[] ERROR = "{\"error\":\"Пользователь не найден\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final CountDownLatch firstRowDelivered = new CountDownLatch(1);
+
+    private DisposableServer server;
+
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    public void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/bookings/owner/export", (request, response) -> {
+                            if ("99".equals(request.requestHeaders().get("X-Sharer-User-Id"))) {
+                                return response.status(HttpResponseStatus.NOT_FOUND)
+                                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                        .sendByteArray(Mono.just(ERROR));
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8")
+                                    .sendString(Flux.concat(
+                                            Mono.just("id,status\n1,WAITING\n"),
+                                            Mono.fromCallable(() -> firstRowDelivered.await(5, TimeUnit.SECONDS)
+                                                            ? "2,APPROVED\n" : "timeout\n")
+                                                    .subscribeOn(Schedulers.boundedElastic())));
+                        }))
+                .bindNow();
+        bookingClient = new BookingClient("http://localhost:" + server.port(), WebClient.builder(),
+                new ReactorClientHttpConnector());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void shouldStreamRowsBeforeServerFinishes() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportForOwner(1, ExportFormat.CSV).block();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                if (toString(StandardCharsets.UTF_8).contains("1,WAITING")) {
+                    firstRowDelivered.countDown();
+                }
+            }
+        };
+
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv;charset=UTF-8", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertEquals("id,status\n1,WAITING\n2,APPROVED\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldStreamErrorResponseThroughUnchanged() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportForOwner(99, ExportFormat.NDJSON).block();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(ERROR, out.toByteArray());
+    }
+}
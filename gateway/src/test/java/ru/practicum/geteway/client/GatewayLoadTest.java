@@ -0,0 +1,106 @@
+package ru.practicum.geteway.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочная проверка неблокирующего шлюза: REQUESTS одновременных запросов к серверу-заглушке,
+ * который отвечает через DELAY, обслуживаются TOMCAT_THREADS потоками Tomcat.
+ * Блокирующему шлюзу на это нужно не меньше REQUESTS / TOMCAT_THREADS * DELAY или поток на каждый запрос,
+ * поэтому проверяются и время, и пик потоков JVM: не больше, чем после прогрева, плюс THREAD_MARGIN.
+ * По умолчанию 1000 запросов, полный прогон - -Dshareit.load.requests=10000 (нужен ulimit -n от 50000).
+ * В обычный mvn test не входит, запуск - с -Dshareit.test.excluded-groups=none (см. gateway/pom.xml).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewayLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("shareit.load.requests", 1000);
+
+    private static final int TOMCAT_THREADS = 32;
+
+    private static final Duration DELAY = Duration.ofSeconds(2);
+
+    private static final int THREAD_MARGIN = 16;
+
+    private static final DisposableServer SERVER = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> Mono.delay(DELAY)
+                    .then(response.header("Content-Type", "application/json").sendString(Mono.just("[]")).then()))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.port());
+        registry.add("shareit-server.http.max-connections", () -> REQUESTS);
+        registry.add("server.tomcat.threads.max", () -> TOMCAT_THREADS);
+        registry.add("shareit-server.cache.enabled", () -> false);
+        registry.add("logging.level.ru.practicum.geteway", () -> "WARN");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        SERVER.disposeNow();
+    }
+
+    @Test
+    void shouldServeConcurrentSlowRequestsWithFewThreads() {
+        ConnectionProvider provider = ConnectionProvider.builder("load-test")
+                .maxConnections(REQUESTS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(provider).baseUrl("http://localhost:" + port);
+        fire(client, TOMCAT_THREADS);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        long started = System.nanoTime();
+
+        long succeeded = fire(client, REQUESTS);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        Duration blocking = DELAY.multipliedBy(REQUESTS / TOMCAT_THREADS);
+        provider.disposeLater().block();
+
+        assertEquals(REQUESTS, succeeded);
+        assertTrue(elapsed.compareTo(blocking.dividedBy(2)) < 0,
+                () -> REQUESTS + " запросов выполнялись " + elapsed.toMillis() + " мс - шлюз блокирует потоки Tomcat");
+        int peak = threads.getPeakThreadCount();
+        assertTrue(peak <= baseline + THREAD_MARGIN,
+                () -> "Пик потоков JVM " + peak + " при " + baseline + " после прогрева"
+                        + " - шлюз создает поток на запрос");
+    }
+
+    private long fire(HttpClient client, int requests) {
+        return Flux.range(0, requests)
+                .flatMap(i -> client.headers(headers -> headers.set("X-Sharer-User-Id", i + 1))
+                        .get()
+                        .uri("/users")
+                        .responseSingle((response, body) -> Mono.just(response.status().code()))
+                        .onErrorReturn(-1), requests)
+                .filter(status -> status == 200)
+                .count()
+                .block(Duration.ofMinutes(5));
+    }
+}
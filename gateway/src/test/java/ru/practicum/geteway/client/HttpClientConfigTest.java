@@ -0,0 +1,80 @@
+package ru.practicum.geteway.client;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.geteway.config.HttpClientConfig;
+import ru.practicum.geteway.item.ItemClient;
+import ru.practicum.geteway.user.UserClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientConfigTest {
+
+    private DisposableServer server;
+
+    private SimpleMeterRegistry registry;
+
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.just("[]")))
+                .bindNow();
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(WebClientAutoConfiguration.class))
+                .withUserConfiguration(HttpClientConfig.class, ItemClient.class, UserClient.class)
+                .withPropertyValues(
+                        "shareit-server.url=http://localhost:" + server.port(),
+                        "shareit-server.http.max-connections=50",
+                        "shareit-server.http.max-pending=70");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+        server.disposeNow();
+    }
+
+    @Test
+    void shouldConfigurePoolFromProperties() {
+        contextRunner.run(context -> {
+            ConnectionProvider provider = context.getBean(ConnectionProvider.class);
+
+            assertEquals(50, provider.maxConnections());
+        });
+    }
+
+    @Test
+    void shouldShareOnePoolBetweenClientsAndPublishMetrics() {
+        contextRunner.run(context -> {
+            ResponseEntity<Object> users = context.getBean(UserClient.class).getAll().block();
+            ResponseEntity<Object> items = context.getBean(ItemClient.class).getAll(1L).block();
+
+            assertEquals(HttpStatus.OK, users.getStatusCode());
+            assertEquals(HttpStatus.OK, items.getStatusCode());
+            assertEquals(1, registry.find("reactor.netty.connection.provider.max.connections")
+                    .tag("name", "shareit-server").gauges().size());
+            assertEquals(50, registry.get("reactor.netty.connection.provider.max.connections")
+                    .tag("name", "shareit-server").gauge().value());
+            assertEquals(70, registry.get("reactor.netty.connection.provider.max.pending.connections")
+                    .tag("name", "shareit-server").gauge().value());
+        });
+    }
+}
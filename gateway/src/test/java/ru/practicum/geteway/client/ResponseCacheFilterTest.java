@@ -0,0 +1,241 @@
+package ru.practicum.geteway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.geteway.booking.BookingClient;
+import ru.practicum.geteway.booking.dto.BookingRequestDto;
+import ru.practicum.geteway.item.ItemClient;
+import ru.practicum.geteway.user.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheFilterTest {
+
+    private final AtomicInteger serverGets = new AtomicInteger();
+
+    private final AtomicInteger version = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private Cache<ResponseCacheFilter.Key, ResponseCacheFilter.CachedResponse> cache;
+
+    private SimpleMeterRegistry registry;
+
+    private ItemClient itemClient;
+
+    private UserClient userClient;
+
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/items/404", (request, response) -> {
+                            serverGets.incrementAndGet();
+                            return response.status(HttpResponseStatus.NOT_FOUND).send();
+                        })
+                        .get("/items/5", (request, response) -> {
+                            serverGets.incrementAndGet();
+                            String eTag = "\"v" + version.get() + "\"";
+                            response.header(HttpHeaders.ETAG, eTag);
+                            if (eTag.equals(request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH))) {
+                                return response.status(HttpResponseStatus.NOT_MODIFIED).send();
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"id\":5}"));
+                        })
+                        .get("/**", (request, response) -> {
+                            serverGets.incrementAndGet();
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"uri\":\"" + request.uri() + "\",\"user\":\""
+                                            + request.requestHeaders().get("X-Sharer-User-Id") + "\",\"version\":"
+                                            + version.get() + "}"));
+                        })
+                        .route(request -> true, (request, response) -> {
+                            version.incrementAndGet();
+                            return request.receive().then(response.send());
+                        }))
+                .bindNow();
+        cache = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .recordStats()
+                .build();
+        registry = new SimpleMeterRegistry();
+        CaffeineCacheMetrics.monitor(registry, cache, "shareit-server");
+        ResponseCacheFilter filter = new ResponseCacheFilter(cache, Set.of("users", "items", "requests"), "");
+        String serverUrl = "http://localhost:" + server.port();
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector();
+        itemClient = new ItemClient(serverUrl, WebClient.builder().filter(filter), connector);
+        userClient = new UserClient(serverUrl, WebClient.builder().filter(filter), connector);
+        bookingClient = new BookingClient(serverUrl, WebClient.builder().filter(filter), connector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void shouldServeRepeatedGetFromCacheWithSameBody() {
+        ResponseEntity<Object> first = itemClient.getById(1, 7).block();
+        ResponseEntity<Object> second = itemClient.getById(1, 7).block();
+
+        assertEquals(1, serverGets.get());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+        assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldKeyByUserAndQuery() {
+        itemClient.getById(1, 7).block();
+        itemClient.getById(1, 8).block();
+        itemClient.search("дрель", 0, 10).block();
+        itemClient.search("дрель", 10, 10).block();
+
+        assertEquals(4, serverGets.get());
+        assertTrue(body(itemClient.getById(1, 8).block()).contains("\"user\":\"8\""));
+        assertEquals(4, serverGets.get());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        itemClient.getById(404, 7).block();
+        ResponseEntity<Object> response = itemClient.getById(404, 7).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(2, serverGets.get());
+    }
+
+    @Test
+    void shouldInvalidateFamilyOnWrite() {
+        itemClient.getById(1, 7).block();
+        itemClient.update(1, 7, Map.of("name", "Дрель")).block();
+        ResponseEntity<Object> response = itemClient.getById(1, 7).block();
+
+        assertEquals(2, serverGets.get());
+        assertTrue(body(response).contains("\"version\":1"));
+    }
+
+    @Test
+    void shouldKeepOtherIdsOfFamilyOnWrite() {
+        itemClient.getById(1, 7).block();
+        itemClient.getById(2, 7).block();
+        itemClient.getAll(7).block();
+        itemClient.update(1, 7, Map.of("name", "Дрель")).block();
+
+        itemClient.getById(1, 7).block();
+        itemClient.getById(2, 7).block();
+        itemClient.getAll(7).block();
+
+        assertEquals(5, serverGets.get());
+    }
+
+    @Test
+    void shouldInvalidateDependentFamilies() {
+        itemClient.getById(1, 7).block();
+        userClient.getById(7).block();
+        bookingClient.create(7, new BookingRequestDto(null, 1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), null)).block();
+
+        itemClient.getById(1, 7).block();
+        userClient.getById(7).block();
+
+        assertEquals(3, serverGets.get());
+    }
+
+    @Test
+    void shouldInvalidateWithoutTouchingStoredResponses() {
+        for (int id = 1; id <= 100; id++) {
+            itemClient.getById(id, 7).block();
+        }
+        userClient.getById(7).block();
+        cache.cleanUp();
+        long stored = cache.estimatedSize();
+
+        userClient.update(8, Map.of("name", "Пила")).block();
+        cache.cleanUp();
+
+        assertEquals(stored, cache.estimatedSize());
+        itemClient.getById(1, 7).block();
+        userClient.getById(7).block();
+        assertEquals(102, serverGets.get());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedByETag() {
+        itemClient.getById(5, 7, null).block();
+        ResponseEntity<Object> fromCache = itemClient.getById(5, 7, "\"v0\"").block();
+
+        assertEquals(1, serverGets.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, fromCache.getStatusCode());
+        assertEquals("\"v0\"", fromCache.getHeaders().getETag());
+        assertNull(fromCache.getBody());
+
+        itemClient.update(5, 7, Map.of("name", "Дрель")).block();
+        ResponseEntity<Object> changed = itemClient.getById(5, 7, "\"v0\"").block();
+        itemClient.update(5, 7, Map.of("name", "Пила")).block();
+        ResponseEntity<Object> fromServer = itemClient.getById(5, 7, "\"v2\"").block();
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("\"v1\"", changed.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, fromServer.getStatusCode());
+        assertEquals("\"v2\"", fromServer.getHeaders().getETag());
+        assertEquals(3, serverGets.get());
+    }
+
+    @Test
+    void shouldCutServerCallsOnReadHeavyTraffic() {
+        Random random = new Random(42);
+        int gets = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long itemId = 1 + random.nextInt(50);
+            long userId = 1 + random.nextInt(20);
+            if (random.nextInt(100) < 2) {
+                itemClient.update(itemId, userId, Map.of("available", true)).block();
+            } else {
+                itemClient.getById(itemId, userId).block();
+                gets++;
+            }
+        }
+
+        int total = gets;
+        assertTrue(serverGets.get() < total / 2, () -> "Запросов к серверу " + serverGets.get() + " из " + total
+                + ", hit ratio " + cache.stats().hitRate());
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,4 +1,90 @@
 package ru.practicum.geteway.client;
 
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.geteway.user.UserClient;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
 public class UserClientTest {
+
+    private static final byte[] USERS = "[{\"id\":1,\"name\":\"Иван\",\"email\":\"ivan@mail.ru\"}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] ERROR = "{\"error\":\"Пользователь не найден\"}".getBytes(StandardCharsets.UTF_8);
+
+    private DisposableServer server;
+
+    private UserClient userClient;
+
+    @BeforeEach
+    public void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/users", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header("X-Next-Cursor", "token")
+                                .header("X-Sharer-User-Id", request.requestHeaders().get("X-Sharer-User-Id", "none"))
+                                .sendByteArray(Mono.just(USERS)))
+                        .get("/users/99", (request, response) -> response
+                                .status(HttpResponseStatus.NOT_FOUND)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendByteArray(Mono.just(ERROR)))
+                        .delete("/users/1", (request, response) -> response.send()))
+                .bindNow();
+        userClient = new UserClient("http://localhost:" + server.port(), WebClient.builder(),
+                new ReactorClientHttpConnector());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void shouldPassResponseBodyThroughUnchanged() {
+        ResponseEntity<Object> response = userClient.getAll().block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(USERS, (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("token", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("none", response.getHeaders().getFirst("X-Sharer-User-Id"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    public void shouldPassErrorResponseThroughUnchanged() {
+        ResponseEntity<Object> response = userClient.getById(99).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(ERROR, (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    public void shouldReturnEmptyBodyWhenServerSendsNone() {
+        ResponseEntity<Object> response = userClient.delete(1).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+    }
 }
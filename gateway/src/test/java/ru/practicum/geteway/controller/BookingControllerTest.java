@@ -9,15 +9,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.geteway.booking.BookingClient;
 import ru.practicum.geteway.booking.BookingController;
 import ru.practicum.geteway.booking.dto.BookingRequestDto;
+import ru.practicum.geteway.booking.dto.ExportFormat;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -55,6 +69,58 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldCreateBookingBatch() throws Exception {
+        String jsonBookings = objectMapper.writeValueAsString(List.of(bookingDto,
+                new BookingRequestDto(null, 2L, start, end, null)));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBookings))
+                .andExpect(status().isOk());
+        verify(bookingClient).createAll(eq(1L), argThat(dtos -> dtos.size() == 2));
+    }
+
+    @Test
+    public void shouldRejectWholeBatchWithInvalidBooking() throws Exception {
+        String jsonBookings = objectMapper.writeValueAsString(List.of(bookingDto,
+                new BookingRequestDto(null, null, start, end, null)));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBookings))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    public void shouldStreamExportFromServer() throws Exception {
+        StreamingResponseBody rows = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+        when(bookingClient.exportForOwner(1L, ExportFormat.NDJSON)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(rows)));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult streaming = mockMvc.perform(asyncDispatch(result))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
     @Test
     public void shouldGetBookingsById() throws Exception {
         Integer bookingId = 1;
@@ -9,13 +9,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.geteway.item.ItemClient;
 import ru.practicum.geteway.item.ItemController;
 import ru.practicum.geteway.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -140,9 +147,14 @@ public class ItemControllerTest {
     @Test
     public void shouldDeleteItem() throws Exception {
         Long userId = 1L;
+        when(itemClient.delete(1L)).thenReturn(Mono.just(ResponseEntity.ok().build()));
 
-        mockMvc.perform(delete("/items/1")
+        MvcResult result = mockMvc.perform(delete("/items/1")
                         .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 
@@ -154,4 +166,64 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void shouldSearchFreeInPeriod() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemClient.search("дрель", start, start.plusDays(3), 0, 10))
+                .thenReturn(Mono.just(ResponseEntity.ok("[]")));
+
+        MvcResult result = mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-01T00:00:00")
+                        .param("end", "2030-01-04T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldRejectSearchWithPartialOrReversedPeriod() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-04T00:00:00")
+                        .param("end", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemClient.getAvailability(1L, from, from.plusYears(1)))
+                .thenReturn(Mono.just(ResponseEntity.ok("{\"itemId\":1}")));
+
+        MvcResult result = mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2031-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldRejectAvailabilityForReversedOrTooLongPeriod() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-02T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2031-01-03T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
 }
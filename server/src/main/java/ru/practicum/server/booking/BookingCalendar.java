@@ -0,0 +1,70 @@
+package ru.practicum.server.booking;
+
+import lombok.Getter;
+import ru.practicum.server.booking.dto.BookingPeriod;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Класс описывает BookingCalendar - занятость одной вещи в периоде [from, to) для календаря доступности.
+ * Занятые периоды сортируются по дате начала, поэтому пересекающиеся и идущие встык сливаются за один проход,
+ * а свободные окна - промежутки между слитыми периодами. Периоды обрезаются по границам [from, to),
+ * так что занятые и свободные вместе покрывают его без зазоров.
+ */
+@Getter
+public class BookingCalendar {
+
+    private static final Comparator<BookingPeriod> BY_START = Comparator.comparing(BookingPeriod::getStart);
+
+    private final List<BookingPeriod> busy;
+    private final List<BookingPeriod> free;
+
+    private BookingCalendar(List<BookingPeriod> busy, List<BookingPeriod> free) {
+        this.busy = busy;
+        this.free = free;
+    }
+
+    public static BookingCalendar of(List<BookingPeriod> periods, LocalDateTime from, LocalDateTime to) {
+        List<BookingPeriod> sorted = new ArrayList<>(periods);
+        sorted.sort(BY_START);
+
+        List<BookingPeriod> busy = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (BookingPeriod period : sorted) {
+            LocalDateTime periodStart = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime periodEnd = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (!periodStart.isBefore(periodEnd)) {
+                continue;
+            }
+            if (end != null && !periodStart.isAfter(end)) {
+                end = periodEnd.isAfter(end) ? periodEnd : end;
+            } else {
+                if (end != null) {
+                    busy.add(new BookingPeriod(start, end));
+                }
+                start = periodStart;
+                end = periodEnd;
+            }
+        }
+        if (end != null) {
+            busy.add(new BookingPeriod(start, end));
+        }
+
+        List<BookingPeriod> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingPeriod period : busy) {
+            if (cursor.isBefore(period.getStart())) {
+                free.add(new BookingPeriod(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new BookingPeriod(cursor, to));
+        }
+        return new BookingCalendar(busy, free);
+    }
+}
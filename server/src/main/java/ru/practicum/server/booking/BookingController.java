@@ -1,10 +1,17 @@
 package ru.practicum.server.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.server.booking.dto.BookingBatchResultDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
 import ru.practicum.server.utils.Constants;
@@ -14,14 +21,22 @@ import java.util.List;
 /**
  * Класс описывает BookingController с следующими энпоинтами
  * - POST /bookings/ -  добавляет запрос на бронирование вещи. После создания запрос находится в статусе WAITING — «ожидает подтверждения».
+ * - POST /bookings/batch - добавляет пакет запросов на бронирование одного пользователя.
+ * Для каждого элемента в порядке запроса возвращается созданное бронирование или ошибка.
  * - PATCH /bookings/{bookingId} - обновляет статус бронирования. Подтверждение или отклонение запроса на бронирование.
  * - GET /bookings/{bookingId} -  Получение данных о конкретном бронировании (включая его статус).
- * Может быть выполнено либо автором бронирования, либо владельцем вещи, к которой относится бронирование
+ * Может быть выполнено либо автором бронирования, либо владельцем вещи, к которой относится бронирование.
+ * Ответ содержит ETag: на совпавший If-None-Match отвечает 304 без тела
  * - GET /bookings?state={state} Получение списка всех бронирований текущего пользователя.
  * Параметр state необязательный и по умолчанию равен ALL (англ. «все»). Также он может принимать значения
  * CURRENT (англ. «текущие»), **PAST** (англ. «завершённые»), FUTURE (англ. «будущие»),
  * WAITING (англ. «ожидающие подтверждения»), REJECTED (англ. «отклонённые»)
  * - GET /bookings/owner?state={state} - Получение списка бронирований для всех вещей текущего пользователя.
+ * - GET /bookings/owner/export?format={format} - выгрузка всех бронирований вещей текущего пользователя
+ * в формате NDJSON (по умолчанию) или CSV. Строки пишутся в ответ по мере чтения из базы.
+ * Оба списка можно листать курсором вместо from: если за страницей есть еще бронирования, в заголовке
+ * X-Next-Cursor возвращается токен, который передается в параметре cursor для получения следующей страницы.
+ * За последней страницей курсор возвращает пустой список.
  */
 @Slf4j
 @RestController
@@ -32,6 +47,8 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public BookingResponseDto addReservation(@RequestHeader(Constants.HEADER) Long userId,
                                              @RequestBody BookingDto dto,
@@ -40,6 +57,14 @@ public class BookingController {
         return bookingService.create(dto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addReservations(@RequestHeader(Constants.HEADER) Long userId,
+                                                       @RequestBody List<BookingDto> dtos) {
+        log.info("Получен запрос к эндпоинту /bookings/batch addReservations с headers {}, бронирований {}",
+                userId, dtos.size());
+        return bookingService.createAll(dtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto updateStatus(@RequestHeader(Constants.HEADER) Long userId,
                                            @PathVariable("bookingId") Long bookingId,
@@ -51,26 +76,65 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingResponseDto getById(@RequestHeader(Constants.HEADER) Long userId,
-                                      @PathVariable("bookingId") Long bookingId) {
+                                      @PathVariable("bookingId") Long bookingId,
+                                      WebRequest request) {
         log.info("Получен запрос к эндпоинту /bookings getById с headers {}, с bookingId {}", userId, bookingId);
-        return bookingService.getById(userId, bookingId);
+        BookingResponseDto booking = bookingService.getById(userId, bookingId);
+        return request.checkNotModified(BookingMapper.toETag(booking)) ? null : booking;
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllReservation(@RequestHeader(Constants.HEADER) Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getAllReservation(@RequestHeader(Constants.HEADER) Long userId,
                                                       @RequestParam(value = "state", defaultValue = "ALL") State state,
                                                       @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                      @RequestParam(name = "size", defaultValue = "10") Integer size) throws Throwable {
+                                                      @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", state);
-        return bookingService.getAllReserve(userId, state, "booker", from, size);
+        return getPage(userId, state, "booker", from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getReservationForOwner(@RequestHeader(Constants.HEADER) Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getReservationForOwner(@RequestHeader(Constants.HEADER) Long userId,
                                                            @RequestParam(value = "state", defaultValue = "ALL") State state,
                                                            @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                           @RequestParam(name = "size", defaultValue = "10") Integer size) throws Throwable {
+                                                           @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", state);
-        return bookingService.getAllReserve(userId, state, "owner", from, size);
+        return getPage(userId, state, "owner", from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForOwner(@RequestHeader(Constants.HEADER) Long userId,
+                                                                @RequestParam(value = "format", defaultValue = "NDJSON")
+                                                                ExportFormat format) {
+        log.info("Получен запрос к эндпоинту /bookings/owner/export exportForOwner с headers {}, format {}",
+                userId, format);
+        bookingService.checkExportAllowed(userId);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + format.getExtension()).build().toString())
+                .body(out -> {
+                    try (BookingExportWriter writer = new BookingExportWriter(format, out, objectMapper)) {
+                        bookingService.exportForOwner(userId, writer);
+                    }
+                });
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> getPage(Long userId, State state, String typeUser,
+                                                             Integer from, Integer size, String cursor) {
+        BookingPage page;
+        if (cursor == null) {
+            page = bookingService.getPage(userId, state, typeUser, from, size);
+        } else {
+            page = bookingService.getPageAfter(userId, state, typeUser,
+                    cursor.isEmpty() ? null : BookingCursor.decode(cursor), size);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(Constants.NEXT_CURSOR_HEADER, page.getNext().encode());
+        }
+        return response.body(page.getBookings());
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.practicum.server.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Класс описывает BookingExportWriter - построчную запись бронирований в выходной поток в формате ExportFormat.
+ * Каждые FLUSH_ROWS строк буфер сбрасывается в поток ответа, поэтому клиент получает строки по мере чтения
+ * из базы, а в памяти не держится больше одного буфера.
+ */
+public class BookingExportWriter implements Closeable {
+
+    private static final int FLUSH_ROWS = 100;
+
+    public static final String CSV_HEADER = "id,itemId,itemName,start,end,bookerId,bookerName,status";
+
+    private final ExportFormat format;
+
+    private final Writer writer;
+
+    private final ObjectWriter json;
+
+    private int rows;
+
+    public BookingExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.json = objectMapper.writerFor(BookingResponseDto.class);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(BookingResponseDto booking) throws IOException {
+        writer.write(format == ExportFormat.CSV ? toCsv(booking) : json.writeValueAsString(booking));
+        writer.write('\n');
+        if (++rows % FLUSH_ROWS == 0) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Сбрасывает остаток буфера. Сам поток ответа закрывает контейнер.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private static String toCsv(BookingResponseDto booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getItem().getId()),
+                csvField(booking.getItem().getName()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getBooker().getId()),
+                csvField(booking.getBooker().getName()),
+                String.valueOf(booking.getStatus()));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
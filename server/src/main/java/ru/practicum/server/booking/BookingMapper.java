@@ -1,11 +1,18 @@
 package ru.practicum.server.booking;
 
 import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import ru.practicum.server.booking.dto.BookingBatchResultDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingShort;
+import ru.practicum.server.exceptions.ErrorResponse;
+import ru.practicum.server.exceptions.BookingOverlapException;
+import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
 import ru.practicum.server.user.User;
+import ru.practicum.server.utils.ETags;
 
 @UtilityClass
 public class BookingMapper {
@@ -18,6 +25,36 @@ public class BookingMapper {
                 .end(booking.getEnd())
                 .booker(new BookingResponseDto.Booker(booking.getBooker().getId(), booking.getBooker().getName()))
                 .status(booking.getStatus())
+                .version(booking.getVersion())
+                .build();
+    }
+
+    /**
+     * ETag ответа GET /bookings/{id}: версия бронирования меняется со статусом, даты неизменны,
+     * а названия вещи и имя автора входят значением.
+     */
+    public String toETag(BookingResponseDto booking) {
+        return ETags.of(booking.getId(), booking.getVersion(),
+                booking.getItem() == null ? null : booking.getItem().getName(),
+                booking.getBooker() == null ? null : booking.getBooker().getName());
+    }
+
+    public BookingBatchResultDto toBatchResultDto(Booking booking) {
+        return BookingBatchResultDto.builder()
+                .status(HttpStatus.OK.value())
+                .booking(toBookingDto(booking))
+                .build();
+    }
+
+    /**
+     * Ошибка элемента пакета с тем же кодом и телом, что ErrorHandler вернул бы на одиночный запрос.
+     */
+    public BookingBatchResultDto toBatchResultDto(RuntimeException error) {
+        HttpStatus status = error instanceof ValidationIdException ? HttpStatus.NOT_FOUND
+                : error instanceof BookingOverlapException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        return BookingBatchResultDto.builder()
+                .status(status.value())
+                .error(new ErrorResponse(error.getClass().getSimpleName(), error.getMessage()))
                 .build();
     }
 
@@ -32,12 +69,12 @@ public class BookingMapper {
                 .build();
     }
 
-    public BookingDtoForItem toBookingDtoForItem(Booking booking) {
+    public BookingDtoForItem toBookingDtoForItem(BookingShort booking) {
         return BookingDtoForItem.builder()
                 .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .bookerId(booking.getBooker().getId())
+                .start(booking.getStartDate())
+                .end(booking.getEndDate())
+                .bookerId(booking.getBookerId())
                 .status(booking.getStatus())
                 .build();
     }
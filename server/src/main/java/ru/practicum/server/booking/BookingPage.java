@@ -0,0 +1,16 @@
+package ru.practicum.server.booking;
+
+import lombok.Value;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+
+import java.util.List;
+
+/**
+ * Класс описывает BookingPage - страницу списка бронирований и cursor следующей страницы.
+ * next == null, если за этой страницей бронирований нет.
+ */
+@Value
+public class BookingPage {
+    List<BookingResponseDto> bookings;
+    BookingCursor next;
+}
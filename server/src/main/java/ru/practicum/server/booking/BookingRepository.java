@@ -3,90 +3,130 @@ package ru.practicum.server.booking;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.server.booking.dto.BookingPeriod;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingShort;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    String SELECT_PERIOD = "SELECT new ru.practicum.server.booking.dto.BookingPeriod(b.start, b.end) " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 ";
 
     @Query("select b " +
             "from Booking as b " +
-            "JOIN b.item AS i " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker " +
             "WHERE b.id = ?1 " +
             "AND i.owner.id = ?2")
     Booking findBookingOwner(Long bookingId, Long ownerId);
 
     @Query("select b " +
             "from Booking as b " +
-            "JOIN b.item AS i " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker " +
             "WHERE b.id = ?1 " +
             "AND (i.owner.id = ?2 OR b.booker.id = ?2)")
     Booking findBookingOwnerOrBooker(Long bookingId, Long ownerId);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime time, LocalDateTime time2, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b " +
+    /**
+     * Для каждой вещи владельца возвращает не более двух подтверждённых бронирований:
+     * последнее начавшееся до now (APPROVED или уже COMPLETED) и ближайшее будущее.
+     */
+    @Query(value = "SELECT booking_id AS id, item_id AS itemId, start_date AS startDate, end_date AS endDate, " +
+            "booker_id AS bookerId, status " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id " +
+            "ORDER BY b.start_date DESC, b.booking_id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE i.user_id = :ownerId AND b.item_id IN (:itemIds) " +
+            "AND b.status IN ('APPROVED', 'COMPLETED') AND b.start_date < :now) AS last_bookings " +
+            "WHERE rn = 1 " +
+            "UNION ALL " +
+            "SELECT booking_id AS id, item_id AS itemId, start_date AS startDate, end_date AS endDate, " +
+            "booker_id AS bookerId, status " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id " +
+            "ORDER BY b.start_date, b.booking_id) AS rn " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE i.user_id = :ownerId AND b.item_id IN (:itemIds) " +
+            "AND b.status = 'APPROVED' AND b.start_date > :now) AS next_bookings " +
+            "WHERE rn = 1", nativeQuery = true)
+    List<BookingShort> findLastAndNextApproved(@Param("ownerId") Long ownerId,
+                                               @Param("itemIds") List<Long> itemIds,
+                                               @Param("now") LocalDateTime now);
+
+    /**
+     * Все бронирования вещей владельца в порядке GET /bookings/owner для выгрузки. Строки читаются курсором JDBC
+     * по EXPORT_FETCH_SIZE в проекцию без загрузки сущностей, поэтому поток читается внутри транзакции
+     * и закрывается после чтения.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.server.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
             "FROM Booking AS b " +
             "JOIN b.item AS i " +
+            "JOIN b.booker AS u " +
             "WHERE i.owner.id = ?1 " +
-            "AND b.start < ?2 AND b.end > ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime time, LocalDateTime time2, Pageable pageable);
-
-    @Query("SELECT b " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingResponseDto> streamAllByOwnerId(Long ownerId);
+
+    /**
+     * Есть ли у вещи бронирование в одном из statuses, пересекающее период [start, end).
+     */
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                                LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Бронирования вещей itemIds в одном из statuses, пересекающие период [start, end).
+     */
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS startDate, b.end AS endDate, " +
+            "b.booker.id AS bookerId, b.status AS status " +
             "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.start > ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.end < ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.status = ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.id = ?1 " +
-            "AND i.owner.id = ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByItemIdAndOwnerId(Long itemId, Long ownerId);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE  i.owner.id = ?1 " +
-            "AND i.id IN (?2) ")
-    List<Booking> findAllByOwnerIdAndItemIn(Long ownerId, List<Long> items);
+            "WHERE b.item.id IN ?1 AND b.status IN ?2 AND b.start < ?4 AND b.end > ?3")
+    List<BookingShort> findAllOverlapping(Collection<Long> itemIds, Collection<Status> statuses,
+                                          LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Периоды бронирований вещи в одном из statuses, начавшихся в [from, to), по возрастанию начала.
+     */
+    @Query(SELECT_PERIOD +
+            "AND b.start >= ?3 AND b.start < ?4 " +
+            "ORDER BY b.start")
+    List<BookingPeriod> findPeriods(Long itemId, Collection<Status> statuses, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Периоды бронирований вещи в одном из statuses, начавшихся до from, от поздних к ранним. Бронирования
+     * в Status.OCCUPYING не пересекаются, поэтому после from может продолжаться только первое из них.
+     */
+    @Query(SELECT_PERIOD +
+            "AND b.start < ?3 " +
+            "ORDER BY b.start DESC")
+    List<BookingPeriod> findPeriodsBefore(Long itemId, Collection<Status> statuses, LocalDateTime from,
+                                          Pageable page);
+
+    /**
+     * Начало самого раннего бронирования в статусе status, начавшегося до time, или null.
+     */
+    @Query("SELECT MIN(b.start) FROM Booking AS b WHERE b.status = ?1 AND b.start < ?2")
+    LocalDateTime findOldestStartBefore(Status status, LocalDateTime time);
+
+    /**
+     * Окончание самого раннего бронирования в статусе status, закончившегося до time, или null.
+     */
+    @Query("SELECT MIN(b.end) FROM Booking AS b WHERE b.status = ?1 AND b.end < ?2")
+    LocalDateTime findOldestEndBefore(Status status, LocalDateTime time);
 
     List<Booking> findAllByBookerIdAndItemIdAndStatusNotAndStartBefore(Long bookerId, Long itemId, Status status, LocalDateTime time);
 
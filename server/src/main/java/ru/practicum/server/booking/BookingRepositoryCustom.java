@@ -0,0 +1,29 @@
+package ru.practicum.server.booking;
+
+import ru.practicum.server.booking.dto.BookingResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Страница бронирований пользователя (как владельца вещей или как автора бронирования) в состоянии state
+     * на момент time, отсортированная по start DESC, id DESC. Начинается сразу после cursor,
+     * а если cursor == null - с элемента offset.
+     */
+    List<BookingResponseDto> findAllByState(Long userId, boolean isOwner, State state, LocalDateTime time,
+                                            BookingCursor cursor, int offset, int size);
+
+    /**
+     * Переводит не больше limit бронирований WAITING, начавшихся до now, в EXPIRED
+     * с событием BOOKING_STATUS_CHANGED в outbox на каждое. Возвращает их число.
+     */
+    int expireWaiting(LocalDateTime now, int limit);
+
+    /**
+     * Переводит не больше limit бронирований APPROVED, закончившихся до now, в COMPLETED
+     * с событием BOOKING_STATUS_CHANGED в outbox на каждое. Возвращает их число.
+     */
+    int completeApproved(LocalDateTime now, int limit);
+}
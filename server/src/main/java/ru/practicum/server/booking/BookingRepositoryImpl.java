@@ -0,0 +1,158 @@
+package ru.practicum.server.booking;
+
+import org.hibernate.query.NativeQuery;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.outbox.OutboxEvent;
+import ru.practicum.server.outbox.OutboxEventType;
+import ru.practicum.server.user.User;
+import ru.practicum.server.utils.RowLocks;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Класс описывает BookingRepositoryImpl - единственный построитель запросов списка бронирований на JPA Criteria.
+ * Условие собирается из роли пользователя (владелец вещи или автор бронирования), State, момента time и cursor,
+ * а в select попадают только колонки BookingResponseDto из bookings, items и users - сущности не загружаются.
+ * С cursor страница начинается с условия start < cursor.start OR (start = cursor.start AND id < cursor.id),
+ * которое обслуживается индексами bookings_booker_start_idx и bookings_item_start_idx,
+ * поэтому время выборки не зависит от глубины страницы.
+ * Смена статуса по времени для BookingSweeper - один UPDATE на пачку вместе с событиями
+ * BOOKING_STATUS_CHANGED в outbox: строки пачки выбираются с RowLocks, поэтому на PostgreSQL несколько
+ * экземпляров сервера переводят разные пачки. version увеличивается, и setApproved по прочитанной раньше
+ * версии бронирования не перезапишет новый статус.
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private final String forUpdateSkipLocked;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BookingRepositoryImpl(DataSource dataSource) {
+        forUpdateSkipLocked = RowLocks.forUpdateSkipLocked(dataSource);
+    }
+
+    @Override
+    public List<BookingResponseDto> findAllByState(Long userId, boolean isOwner, State state, LocalDateTime time,
+                                                   BookingCursor cursor, int offset, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> query = builder.createQuery(BookingResponseDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (isOwner) {
+            predicates.add(builder.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(builder.equal(booker.get("id"), userId));
+        }
+
+        switch (state) {
+            case FUTURE:
+                predicates.add(builder.greaterThan(start, time));
+                break;
+            case WAITING:
+                predicates.add(builder.equal(booking.get("status"), Status.WAITING));
+                break;
+            case CURRENT:
+                predicates.add(builder.lessThan(start, time));
+                predicates.add(builder.greaterThan(end, time));
+                break;
+            case PAST:
+                predicates.add(builder.lessThan(end, time));
+                break;
+            case REJECTED:
+                predicates.add(builder.equal(booking.get("status"), Status.REJECTED));
+                break;
+            default:
+                break;
+        }
+
+        if (cursor != null) {
+            predicates.add(builder.or(
+                    builder.lessThan(start, cursor.getStart()),
+                    builder.and(builder.equal(start, cursor.getStart()), builder.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(builder.construct(BookingResponseDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booker.get("id"), booker.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.desc(start), builder.desc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public int expireWaiting(LocalDateTime now, int limit) {
+        return updateStatusBefore(Status.WAITING, Status.EXPIRED, "start_date", now, limit);
+    }
+
+    @Override
+    public int completeApproved(LocalDateTime now, int limit) {
+        return updateStatusBefore(Status.APPROVED, Status.COMPLETED, "end_date", now, limit);
+    }
+
+    /**
+     * Пачка выбирается с RowLocks и остается заблокированной до конца транзакции, поэтому INSERT в outbox
+     * и UPDATE видят одни и те же строки. Повторная проверка статуса отсекает строки, которые H2 без SKIP LOCKED
+     * вернул до того, как их перевел другой экземпляр. id событий берутся из outbox_seq по одному значению
+     * на строку: каждое значение - верхняя граница своего блока, поэтому с блоками Hibernate они не пересекаются.
+     * Синхронизация только с Booking и OutboxEvent: без нее native UPDATE сбросил бы весь кэш второго уровня.
+     */
+    private int updateStatusBefore(Status from, Status to, String column, LocalDateTime now, int limit) {
+        List<?> batch = entityManager.createNativeQuery("SELECT booking_id FROM bookings " +
+                        "WHERE status = :from AND " + column + " < :now " +
+                        "ORDER BY " + column + " LIMIT :limit" + forUpdateSkipLocked)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Booking.class)
+                .setParameter("from", from.name())
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+        entityManager.createNativeQuery("INSERT INTO outbox (outbox_id, event_type, aggregate_id, payload, created, " +
+                        "next_attempt_at) SELECT nextval('outbox_seq'), :type, booking_id, :to, :created, :created " +
+                        "FROM bookings WHERE booking_id IN (:ids) AND status = :from")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(OutboxEvent.class)
+                .setParameter("type", OutboxEventType.BOOKING_STATUS_CHANGED.name())
+                .setParameter("to", to.name())
+                .setParameter("created", LocalDateTime.now())
+                .setParameterList("ids", ids)
+                .setParameter("from", from.name())
+                .executeUpdate();
+        return entityManager.createNativeQuery("UPDATE bookings SET status = :to, version = version + 1 " +
+                        "WHERE booking_id IN (:ids) AND status = :from")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Booking.class)
+                .setParameter("to", to.name())
+                .setParameterList("ids", ids)
+                .setParameter("from", from.name())
+                .executeUpdate();
+    }
+}
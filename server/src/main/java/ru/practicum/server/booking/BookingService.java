@@ -1,23 +1,39 @@
 package ru.practicum.server.booking;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import lombok.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import ru.practicum.server.booking.dto.BookingBatchResultDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingShort;
+import ru.practicum.server.exceptions.BookingOverlapException;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
 import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.outbox.OutboxEvent;
+import ru.practicum.server.outbox.OutboxEventType;
+import ru.practicum.server.outbox.OutboxRepository;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserMapper;
 import ru.practicum.server.user.UserService;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Класс описывает BookingService, с основной логикой
@@ -32,14 +48,100 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final OutboxRepository outboxRepository;
 
+    /**
+     * Создает бронирование. Строка вещи блокируется до конца транзакции, поэтому параллельные бронирования
+     * одной вещи проверяют пересечение по очереди и побеждает только первое, а бронирования других вещей
+     * не ждут. В PostgreSQL то же гарантирует ограничение bookings_no_overlap и для записей в обход сервиса.
+     */
     @Transactional
     public BookingResponseDto create(BookingDto dto, Long bookerId) {
+        checkPeriod(dto);
+        Item item = itemRepository.findByIdForUpdate(dto.getItemId())
+                .orElseThrow(() -> new ValidationIdException("Item не найден"));
+        checkBookable(item, bookerId);
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), Status.OCCUPYING,
+                dto.getEnd(), dto.getStart())) {
+            throw new BookingOverlapException();
+        }
+
+        User booker = UserMapper.toUser(userService.getById(bookerId));
+        Booking booking = BookingMapper.toBooking(dto, item, booker);
+
+        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+    }
+
+    /**
+     * Создает пакет бронирований одного автора. Вещи пакета блокируются одним запросом IN, занятые периоды
+     * этих вещей читаются вторым, каждый элемент проверяется как в create, в том числе на пересечение
+     * с принятыми ранее элементами пакета, а прошедшие проверку вставляются пакетами JDBC по hibernate.jdbc.batch_size.
+     * Результаты возвращаются в порядке dtos: ошибка элемента не отменяет остальные.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> createAll(List<BookingDto> dtos, Long bookerId) {
+        User booker = UserMapper.toUser(userService.getById(bookerId));
+        Set<Long> itemIds = dtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Period>> occupied = findOccupied(items.keySet(), dtos);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<RuntimeException> errors = new ArrayList<>(dtos.size());
+        for (BookingDto dto : dtos) {
+            try {
+                checkPeriod(dto);
+                Item item = items.get(dto.getItemId());
+                if (item == null) {
+                    throw new ValidationIdException("Item не найден");
+                }
+                checkBookable(item, bookerId);
+                List<Period> itemOccupied = occupied.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (itemOccupied.stream().anyMatch(period -> period.overlaps(dto))) {
+                    throw new BookingOverlapException();
+                }
+                itemOccupied.add(new Period(dto.getStart(), dto.getEnd()));
+                bookings.add(BookingMapper.toBooking(dto, item, booker));
+                errors.add(null);
+            } catch (ValidationIdException | ItemIsNotAvailableForBookingException | BookingOverlapException e) {
+                errors.add(e);
+            }
+        }
+        Iterator<Booking> created = bookingRepository.saveAll(bookings).iterator();
+        return errors.stream()
+                .map(error -> error == null
+                        ? BookingMapper.toBatchResultDto(created.next())
+                        : BookingMapper.toBatchResultDto(error))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Занятые периоды вещей itemIds, пересекающие общий период пакета.
+     */
+    private Map<Long, List<Period>> findOccupied(Set<Long> itemIds, List<BookingDto> dtos) {
+        Optional<LocalDateTime> from = dtos.stream().map(BookingDto::getStart).filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo);
+        Optional<LocalDateTime> to = dtos.stream().map(BookingDto::getEnd).filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo);
+        if (itemIds.isEmpty() || from.isEmpty() || to.isEmpty()) {
+            return new HashMap<>();
+        }
+        return bookingRepository.findAllOverlapping(itemIds, Status.OCCUPYING, from.get(), to.get()).stream()
+                .collect(Collectors.groupingBy(BookingShort::getItemId, HashMap::new,
+                        Collectors.mapping(booking -> new Period(booking.getStartDate(), booking.getEndDate()),
+                                Collectors.toCollection(ArrayList::new))));
+    }
+
+    private void checkPeriod(BookingDto dto) {
         if (dto.getStart().isAfter(dto.getEnd()) || dto.getStart().equals(dto.getEnd())) {
             throw new ItemIsNotAvailableForBookingException("Дата начала позже или равна окончанию бронирования");
         }
-        Item item = itemRepository.findById(dto.getItemId()).orElseThrow(() -> new ValidationIdException("Item не найден"));
+    }
 
+    private void checkBookable(Item item, Long bookerId) {
         if (!item.getAvailable()) {
             throw new ItemIsNotAvailableForBookingException("Вещь не доступна для бронирования");
         }
@@ -47,13 +149,12 @@ public class BookingService {
         if (item.getOwner().getId().equals(bookerId)) {
             throw new ValidationIdException("Пользователь не может забронировать свою вещь");
         }
-
-        User booker = UserMapper.toUser(userService.getById(bookerId));
-        Booking booking = BookingMapper.toBooking(dto, item, booker);
-
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
 
+    /**
+     * Подтверждает или отклоняет бронирование. Реакции на смену статуса не выполняются в запросе:
+     * в той же транзакции пишется событие outbox BOOKING_STATUS_CHANGED, его доставляет OutboxDispatcher.
+     */
     @Transactional
     public BookingResponseDto setApproved(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findBookingOwner(bookingId, userId);
@@ -62,6 +163,9 @@ public class BookingService {
             throw new ValidationIdException("Booking не найден");
         }
 
+        if (booking.getStatus() == Status.EXPIRED || booking.getStatus() == Status.COMPLETED) {
+            throw new ItemIsNotAvailableForBookingException("Статус " + booking.getStatus() + " изменить нельзя");
+        }
         if (approved) {
             if (booking.getStatus().equals(Status.APPROVED)) {
                 throw new ItemIsNotAvailableForBookingException("Статус APPROVED уже установлен");
@@ -70,6 +174,8 @@ public class BookingService {
         } else {
             booking.setStatus(Status.REJECTED);
         }
+        outboxRepository.save(new OutboxEvent(OutboxEventType.BOOKING_STATUS_CHANGED, booking.getId(),
+                booking.getStatus().name()));
 
         return BookingMapper.toBookingDto(bookingRepository.save(booking));
     }
@@ -82,65 +188,82 @@ public class BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
-    public List<BookingResponseDto> getAllReserve(Long userId, State state, String typeUser, int from, int size) throws Throwable {
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-
-        List<Booking> list;
-        LocalDateTime time = LocalDateTime.now();
-        boolean isOwner = typeUser.equals("owner");
+    /**
+     * Проверяет владельца до начала выгрузки: после первой строки ответ уже не заменить ошибкой.
+     */
+    public void checkExportAllowed(Long ownerId) {
+        userService.getById(ownerId);
+    }
 
-        switch (state) {
-            case ALL:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdOrderByStartDesc(userId, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                }
-                break;
-            case FUTURE:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(userId, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, time, page);
-                }
-                break;
-            case WAITING:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page);
-                }
-                break;
-            case CURRENT:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, time, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, time, time, page);
-                }
-                break;
-            case PAST:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDesc(userId, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, time, page);
-                }
-                break;
-            case REJECTED:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, page);
-                }
-                break;
-            default:
-                throw new Throwable("UNSUPPORTED_STATUS");
+    /**
+     * Передает в writer все бронирования вещей владельца одним запросом, без страниц.
+     * Строки читаются курсором и не попадают в контекст персистентности, поэтому память не зависит от объема истории.
+     */
+    public void exportForOwner(Long ownerId, BookingExportWriter writer) throws IOException {
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+            Iterator<BookingResponseDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
         }
+    }
+
+    public List<BookingResponseDto> getAllReserve(Long userId, State state, String typeUser, int from, int size) {
+        return getPage(userId, state, typeUser, from, size).getBookings();
+    }
 
-        if (list.isEmpty()) {
+    public List<BookingResponseDto> getAllReserveAfter(Long userId, State state, String typeUser,
+                                                       BookingCursor cursor, int size) {
+        return getPageAfter(userId, state, typeUser, cursor, size).getBookings();
+    }
+
+    /**
+     * Страница с элемента from. Пустая страница, как и раньше, - ValidationIdException.
+     */
+    public BookingPage getPage(Long userId, State state, String typeUser, int from, int size) {
+        BookingPage page = findAllByState(userId, state, typeUser, null, Math.max(from, 0), size);
+
+        if (page.getBookings().isEmpty()) {
             throw new ValidationIdException("Бронирование не найдено");
         }
 
-        return list.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return page;
+    }
+
+    /**
+     * Страница сразу после cursor. За последней страницей - пустой список, а не ошибка.
+     */
+    public BookingPage getPageAfter(Long userId, State state, String typeUser, BookingCursor cursor, int size) {
+        return findAllByState(userId, state, typeUser, cursor, 0, size);
+    }
+
+    /**
+     * Выбирает на одну строку больше size: cursor следующей страницы возвращается, только если эта строка есть,
+     * поэтому ровно заполненная последняя страница не ведет на пустую.
+     */
+    private BookingPage findAllByState(Long userId, State state, String typeUser,
+                                       BookingCursor cursor, int from, int size) {
+        List<BookingResponseDto> list = bookingRepository.findAllByState(userId, typeUser.equals("owner"), state,
+                LocalDateTime.now(), cursor, from, size + 1);
+
+        if (list.size() <= size) {
+            return new BookingPage(list, null);
+        }
+        List<BookingResponseDto> page = new ArrayList<>(list.subList(0, size));
+        return new BookingPage(page, BookingCursor.of(page.get(size - 1)));
+    }
+
+    /**
+     * Полуоткрытый период [start, end): бронирования встык не пересекаются.
+     */
+    @Value
+    private static class Period {
+        LocalDateTime start;
+        LocalDateTime end;
+
+        boolean overlaps(BookingDto dto) {
+            return start.isBefore(dto.getEnd()) && end.isAfter(dto.getStart());
+        }
     }
 
 }
@@ -0,0 +1,94 @@
+package ru.practicum.server.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Класс описывает BookingSweeper - фоновый перевод бронирований по времени: WAITING, не подтвержденные
+ * до начала, - в EXPIRED, APPROVED после окончания - в COMPLETED. Раз в shareit.booking.sweeper.delay мс
+ * каждый переход выполняется пачками по shareit.booking.sweeper.batch-size строк, каждая пачка - один UPDATE
+ * и события BOOKING_STATUS_CHANGED в outbox в своей транзакции, пока пачки приходят полными.
+ * Запуск на нескольких экземплярах сервера безопасен: строки пачки блокируются с SKIP LOCKED,
+ * а UPDATE повторно проверяет исходный статус.
+ * Метрики: shareit.booking.sweeper.updated - переведенные бронирования, shareit.booking.sweeper.run - время
+ * запуска, shareit.booking.sweeper.lag - насколько самое старое бронирование к началу запуска опоздало с переводом.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.sweeper.enabled", havingValue = "true")
+public class BookingSweeper {
+
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate transaction;
+
+    private final int batchSize;
+
+    private final MeterRegistry registry;
+
+    private final Timer runs;
+
+    public BookingSweeper(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                          @Value("${shareit.booking.sweeper.batch-size:1000}") int batchSize,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        runs = Timer.builder("shareit.booking.sweeper.run")
+                .description("Время запуска BookingSweeper")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.sweeper.delay:60000}",
+            initialDelayString = "${shareit.booking.sweeper.delay:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+        int expired = transition(Status.EXPIRED, bookingRepository.findOldestStartBefore(Status.WAITING, now),
+                now, bookingRepository::expireWaiting);
+        int completed = transition(Status.COMPLETED, bookingRepository.findOldestEndBefore(Status.APPROVED, now),
+                now, bookingRepository::completeApproved);
+        long millis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        runs.record(Duration.ofMillis(millis));
+        if (expired + completed > 0) {
+            log.info("BookingSweeper: {} бронирований переведено в EXPIRED, {} в COMPLETED за {} мс",
+                    expired, completed, millis);
+        }
+    }
+
+    private int transition(Status to, LocalDateTime oldest, LocalDateTime now,
+                           BiFunction<LocalDateTime, Integer, Integer> batch) {
+        Timer.builder("shareit.booking.sweeper.lag")
+                .description("Опоздание самого старого бронирования, ожидающего перевода")
+                .tag("status", to.name())
+                .register(registry)
+                .record(oldest == null ? Duration.ZERO : Duration.between(oldest, now));
+        int total = 0;
+        Integer updated;
+        do {
+            updated = transaction.execute(status -> batch.apply(now, batchSize));
+            total += updated == null ? 0 : updated;
+        } while (updated != null && updated == batchSize);
+        Counter.builder("shareit.booking.sweeper.updated")
+                .description("Бронирования, переведенные BookingSweeper")
+                .tag("status", to.name())
+                .register(registry)
+                .increment(total);
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.server.booking;
+
+import ru.practicum.server.booking.dto.BookingShort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Класс описывает BookingTimeline - индекс подтверждённых бронирований в рамках одного запроса.
+ * Бронирования сгруппированы по id вещи и отсортированы по дате начала, поэтому последнее и следующее
+ * бронирование вещи находятся бинарным поиском относительно момента now, а не перебором всего списка.
+ * Обычно строится из результата BookingRepository.findLastAndNextApproved - не более двух строк на вещь.
+ */
+public class BookingTimeline {
+
+    private static final Comparator<BookingShort> BY_START = Comparator.comparing(BookingShort::getStartDate)
+            .thenComparing(BookingShort::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Long, List<BookingShort>> bookingsByItem;
+    private final LocalDateTime now;
+
+    private BookingTimeline(Map<Long, List<BookingShort>> bookingsByItem, LocalDateTime now) {
+        this.bookingsByItem = bookingsByItem;
+        this.now = now;
+    }
+
+    public static BookingTimeline of(List<BookingShort> bookings, LocalDateTime now) {
+        Map<Long, List<BookingShort>> bookingsByItem = new HashMap<>();
+        for (BookingShort booking : bookings) {
+            if (Status.CONFIRMED.contains(booking.getStatus())) {
+                bookingsByItem.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>()).add(booking);
+            }
+        }
+        bookingsByItem.values().forEach(list -> list.sort(BY_START));
+        return new BookingTimeline(bookingsByItem, now);
+    }
+
+    public static BookingTimeline empty() {
+        return new BookingTimeline(Collections.emptyMap(), LocalDateTime.now());
+    }
+
+    /**
+     * Последнее бронирование - с наибольшей датой начала строго раньше now (текущее или завершённое).
+     */
+    public Optional<BookingShort> findLast(Long itemId) {
+        List<BookingShort> timeline = bookingsByItem.get(itemId);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        int index = firstStartNotBefore(timeline) - 1;
+        return index >= 0 ? Optional.of(timeline.get(index)) : Optional.empty();
+    }
+
+    /**
+     * Следующее бронирование - с наименьшей датой начала строго позже now.
+     */
+    public Optional<BookingShort> findNext(Long itemId) {
+        List<BookingShort> timeline = bookingsByItem.get(itemId);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        int index = firstStartNotBefore(timeline);
+        while (index < timeline.size() && timeline.get(index).getStartDate().equals(now)) {
+            index++;
+        }
+        return index < timeline.size() ? Optional.of(timeline.get(index)) : Optional.empty();
+    }
+
+    private int firstStartNotBefore(List<BookingShort> timeline) {
+        int low = 0;
+        int high = timeline.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timeline.get(middle).getStartDate().isBefore(now)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
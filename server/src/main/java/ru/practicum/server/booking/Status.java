@@ -1,12 +1,28 @@
 package ru.practicum.server.booking;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Класс описывает Status Booking
  * WAITING — новое бронирование, ожидает одобрения/подтверждения,
  * APPROVED — бронирование подтверждено владельцем,
  * REJECTED — бронирование отклонено владельцем,
- * CANCELED — бронирование отменено создателем.
+ * CANCELED — бронирование отменено создателем,
+ * EXPIRED — бронирование не подтверждено до начала (переводит BookingSweeper),
+ * COMPLETED — подтвержденное бронирование закончилось (переводит BookingSweeper).
 * */
 public enum Status {
-    WAITING, APPROVED, REJECTED, CANCELED
+    WAITING, APPROVED, REJECTED, CANCELED, EXPIRED, COMPLETED;
+
+    /**
+     * Статусы, в которых бронирование занимает вещь: пересекаться по времени они не могут
+     * (ограничение bookings_no_overlap в PostgreSQL).
+     */
+    public static final Set<Status> OCCUPYING = EnumSet.of(WAITING, APPROVED, COMPLETED);
+
+    /**
+     * Подтвержденные владельцем бронирования: идущие и будущие APPROVED и закончившиеся COMPLETED.
+     */
+    public static final Set<Status> CONFIRMED = EnumSet.of(APPROVED, COMPLETED);
 }
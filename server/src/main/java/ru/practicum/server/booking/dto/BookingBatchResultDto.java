@@ -0,0 +1,23 @@
+package ru.practicum.server.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.server.exceptions.ErrorResponse;
+
+/**
+ * Класс описывает модель BookingBatchResultDto - результат одного элемента POST /bookings/batch:
+ * status 200 и созданное бронирование booking, либо код и error, как в ответе одиночного POST /bookings
+ */
+
+@Data
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchResultDto {
+
+    private Integer status;
+    private BookingResponseDto booking;
+    private ErrorResponse error;
+}
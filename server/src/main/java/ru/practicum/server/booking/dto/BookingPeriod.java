@@ -0,0 +1,15 @@
+package ru.practicum.server.booking.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс описывает BookingPeriod - полуоткрытый период [start, end) занятости или свободы вещи
+ * в календаре доступности. Создается проекцией BookingRepository без загрузки сущностей.
+ */
+@Value
+public class BookingPeriod {
+    LocalDateTime start;
+    LocalDateTime end;
+}
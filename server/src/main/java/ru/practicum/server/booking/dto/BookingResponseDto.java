@@ -1,5 +1,6 @@
 package ru.practicum.server.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import ru.practicum.server.booking.Status;
 
@@ -22,6 +23,21 @@ public class BookingResponseDto {
     private Booker booker;
     private Status status;
 
+    /**
+     * Версия сущности для ETag, клиенту не передается
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
+    /**
+     * Конструктор проекции BookingRepositoryImpl.findAllByState - строка выборки без загрузки сущностей.
+     */
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                              Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, new Item(itemId, itemName), start, end, new Booker(bookerId, bookerName), status, null);
+    }
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -0,0 +1,24 @@
+package ru.practicum.server.booking.dto;
+
+import ru.practicum.server.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интерфейс описывает проекцию BookingShort - только те колонки бронирования,
+ * которые нужны для полей lastBooking и nextBooking вещи
+ */
+public interface BookingShort {
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getBookerId();
+
+    Status getStatus();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Класс описывает SchedulingConfig - включает @Scheduled для фоновых задач сервера.
+ * Каждая задача включается своим свойством (например, shareit.outbox.dispatcher.enabled).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
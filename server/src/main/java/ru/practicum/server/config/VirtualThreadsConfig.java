@@ -0,0 +1,64 @@
+package ru.practicum.server.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Класс описывает VirtualThreadsConfig - включаемый свойством shareit.threads.virtual=true режим,
+ * в котором Tomcat обрабатывает каждый запрос (а с ним и вызовы JPA в сервисах) в отдельном виртуальном потоке.
+ * Проект компилируется под Java 11, поэтому executor создается через reflection и требует запуска на JDK 21+.
+ * Executor принадлежит только Tomcat и не публикуется бином: бин ExecutorService Spring Boot взял бы
+ * вместо applicationTaskExecutor для @Async и асинхронных ответов MVC.
+ * Копия для шлюза - ru.practicum.geteway.config.VirtualThreadsConfig: общего модуля нет, правки вносятся
+ * в оба класса. Сравнение с пулом платформенных потоков - нагрузочный VirtualThreadsLoadTest.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return new VirtualThreadProtocolHandlerCustomizer(newVirtualThreadPerTaskExecutor());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Для shareit.threads.virtual=true нужна Java 21+, запущена "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать executor виртуальных потоков", e);
+        }
+    }
+
+    /**
+     * Передает executor Tomcat и останавливает его вместе с контекстом: внешний executor Tomcat сам не закрывает.
+     */
+    private static class VirtualThreadProtocolHandlerCustomizer
+            implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+        private final ExecutorService executor;
+
+        VirtualThreadProtocolHandlerCustomizer(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void customize(ProtocolHandler protocolHandler) {
+            protocolHandler.setExecutor(executor);
+        }
+
+        @Override
+        public void destroy() {
+            executor.shutdown();
+        }
+    }
+}
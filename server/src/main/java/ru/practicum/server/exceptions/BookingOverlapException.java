@@ -0,0 +1,7 @@
+package ru.practicum.server.exceptions;
+
+public class BookingOverlapException extends RuntimeException {
+    public BookingOverlapException() {
+        super("Вещь уже забронирована на пересекающийся период");
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +20,11 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 @Slf4j
 public class ErrorHandler {
 
+    /**
+     * Ограничение PostgreSQL, запрещающее пересечение бронирований одной вещи (миграция V6).
+     */
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     @ExceptionHandler(ValidationIdException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleValidationIdException(final ValidationIdException e) {
@@ -26,13 +32,31 @@ public class ErrorHandler {
         return new ErrorResponse("ValidationIdException", e.getMessage());
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(final BookingOverlapException e) {
+        log.warn("Исключение BookingOverlapException {}", e.getMessage());
+        return new ErrorResponse("BookingOverlapException", e.getMessage());
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleSqlException(final DataIntegrityViolationException e) {
         log.warn("Ошибка DataIntegrityViolationException {}", e.getMessage());
+        String cause = e.getMostSpecificCause().getMessage();
+        if (cause != null && cause.contains(BOOKING_OVERLAP_CONSTRAINT)) {
+            return handleBookingOverlapException(new BookingOverlapException());
+        }
         return new ErrorResponse(e.getClass().getSimpleName(), e.getMessage());
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final ObjectOptimisticLockingFailureException e) {
+        log.warn("Ошибка ObjectOptimisticLockingFailureException {}", e.getMessage());
+        return new ErrorResponse(e.getClass().getSimpleName(), "Данные изменены параллельным запросом, повторите запрос");
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleConstraintViolationException(final ConstraintViolationException e) {
@@ -3,6 +3,7 @@ package ru.practicum.server.item;
 import lombok.experimental.UtilityClass;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentResponseDto;
+import ru.practicum.server.item.dto.CommentView;
 import ru.practicum.server.user.User;
 
 import java.time.LocalDateTime;
@@ -32,6 +33,17 @@ public class CommentMapper {
                 .build();
     }
 
+    public CommentResponseDto toCommentResponseDto(CommentView comment) {
+        return CommentResponseDto
+                .builder()
+                .id(comment.getId())
+                .authorName(comment.getAuthorName())
+                .created(LocalDateTime.now())
+                .text(comment.getText())
+                .item(new CommentResponseDto.Item(comment.getItemId(), comment.getItemName()))
+                .build();
+    }
+
     public CommentResponseDto toCommentResponseDto(Comment comment) {
         return CommentResponseDto
                 .builder()
@@ -1,6 +1,8 @@
 package ru.practicum.server.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.server.item.dto.CommentView;
 
 import java.util.List;
 
@@ -10,8 +12,17 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
+    String SELECT_VIEW = "SELECT c.id AS id, c.text AS text, c.authorName AS authorName, c.created AS created, " +
+            "i.id AS itemId, i.name AS itemName " +
+            "FROM Comment AS c " +
+            "JOIN c.item AS i ";
 
-    List<Comment> findAllByAndAuthorName(String author);
+    @Query(SELECT_VIEW +
+            "WHERE i.id = ?1")
+    List<CommentView> findAllByItemId(Long itemId);
+
+    @Query(SELECT_VIEW +
+            "WHERE c.authorName = ?1")
+    List<CommentView> findAllByAndAuthorName(String author);
 
 }
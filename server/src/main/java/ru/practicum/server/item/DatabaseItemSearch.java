@@ -0,0 +1,32 @@
+package ru.practicum.server.item;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.item.dto.ItemView;
+import ru.practicum.server.utils.FromSizeRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Класс описывает DatabaseItemSearch - поиск запросами ItemRepository.searchViews и searchFreeViews
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemView> search(String text, int from, int size) {
+        return itemRepository.searchViews(text, new FromSizeRequest(from, size));
+    }
+
+    @Override
+    public List<ItemView> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFreeViews(text, Status.OCCUPYING, start, end, new FromSizeRequest(from, size));
+    }
+}
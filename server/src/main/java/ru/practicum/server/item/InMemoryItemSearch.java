@@ -0,0 +1,120 @@
+package ru.practicum.server.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingShort;
+import ru.practicum.server.item.dto.ItemView;
+import ru.practicum.server.user.UserChangedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Класс описывает InMemoryItemSearch - поиск по ItemSearchIndex без обращения к базе данных.
+ * Индекс строится при старте из ItemRepository пачками по id, а после коммита изменений вещи
+ * или ее владельца соответствующие строки перечитываются из базы, так что откаченные изменения в индекс не попадают.
+ * Бронирований в индексе нет: для поиска свободных вещей кандидаты из индекса проверяются в базе пачками,
+ * одним запросом на пачку.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearch implements ItemSearch {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final int MIN_CHUNK = 20;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @PostConstruct
+    public void build() {
+        long started = System.currentTimeMillis();
+        long lastId = 0;
+        List<ItemView> batch;
+        do {
+            batch = itemRepository.findAllViewsByIdAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+            batch.forEach(index::put);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Индекс поиска вещей построен: {} вещей за {} мс", index.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public List<ItemView> search(String text, int from, int size) {
+        return index.search(text, from, size);
+    }
+
+    /**
+     * Берет из индекса пачку кандидатов в порядке выдачи, отбрасывает занятые одним запросом
+     * BookingRepository.findAllOverlapping и, пока страница не набрана, повторяет со следующей пачкой
+     * вдвое большего размера.
+     */
+    @Override
+    public List<ItemView> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<ItemView> free = new ArrayList<>();
+        int skip = from;
+        int offset = 0;
+        int chunk = (int) Math.min(Math.max((long) from + size, MIN_CHUNK), BATCH_SIZE);
+        while (true) {
+            List<ItemView> candidates = index.search(text, offset, chunk);
+            if (candidates.isEmpty()) {
+                return free;
+            }
+            Set<Long> busy = bookingRepository.findAllOverlapping(
+                            candidates.stream().map(ItemView::getId).collect(Collectors.toList()),
+                            Status.OCCUPYING, start, end).stream()
+                    .map(BookingShort::getItemId)
+                    .collect(Collectors.toSet());
+            for (ItemView candidate : candidates) {
+                if (busy.contains(candidate.getId())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (free.add(candidate) && free.size() == size) {
+                    return free;
+                }
+            }
+            if (candidates.size() < chunk) {
+                return free;
+            }
+            offset += chunk;
+            chunk = Math.min(chunk * 2, BATCH_SIZE);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        itemRepository.findViewById(event.getItemId())
+                .ifPresentOrElse(index::put, () -> index.remove(event.getItemId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUserChanged(UserChangedEvent event) {
+        index.removeByOwnerId(event.getUserId());
+        itemRepository.findAllViewsByOwnerId(event.getUserId()).forEach(index::put);
+    }
+}
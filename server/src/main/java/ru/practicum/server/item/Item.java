@@ -1,23 +1,27 @@
 package ru.practicum.server.item;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.server.user.User;
 
 import javax.persistence.*;
 
 /**
- * Класс описывает модель Item
+ * Класс описывает модель Item, которая хранится в кэше второго уровня Hibernate (регион items)
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items")
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long id;
 
@@ -27,9 +31,10 @@ public class Item {
     @Column(name = "description")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "user_id")
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User owner;
 
     @Column(name = "available")
@@ -38,4 +43,12 @@ public class Item {
     @Column(name = "request")
     private Long requestId;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
+
+    public Item(Long id, String name, String description, User owner, Boolean available, Long requestId) {
+        this(id, name, description, owner, available, requestId, null);
+    }
 }
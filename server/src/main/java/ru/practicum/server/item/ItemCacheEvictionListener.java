@@ -0,0 +1,28 @@
+package ru.practicum.server.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.server.user.UserChangedEvent;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Класс описывает ItemCacheEvictionListener - сброс региона items кэша второго уровня после коммита
+ * удаления пользователя: вещи удаленного владельца удаляет ON DELETE CASCADE в базе, мимо Hibernate,
+ * поэтому без сброса их можно было бы найти по id. Изменение пользователя вещи не затрагивает: в кэше вещи
+ * хранится только id владельца. Вещи, измененные через ItemRepository, Hibernate сбрасывает сам.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCacheEvictionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            entityManagerFactory.getCache().evict(Item.class);
+        }
+    }
+}
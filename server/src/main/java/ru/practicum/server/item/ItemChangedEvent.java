@@ -0,0 +1,14 @@
+package ru.practicum.server.item;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Класс описывает ItemChangedEvent - вещь itemId создана, изменена или удалена
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+
+    private final Long itemId;
+}
@@ -2,27 +2,34 @@ package ru.practicum.server.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentResponseDto;
 import ru.practicum.server.utils.Constants;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Класс описывает ItemController с следующими энпоинтами
- * - GET /items/{id} -  получать данные вещи по идентификатору
+ * - GET /items/{id} -  получать данные вещи по идентификатору, с ETag: на совпавший If-None-Match отвечает 304 без тела
  * - GET /items/ -  получать данные всех вещей
  * - POST /items/ -  добавлять вещь в память
  * - PATCH /items/{id} - обновление вещи по id
  * - DELETE  /items/{id} - удаление вещи по id
  * - POST /items/{itemId}/comment - Добавление отзывов  на вещь после того, как взяли её в аренду
+ * - GET /items/search?text={text}&from={from}&size={size} - поиск доступных вещей по названию и описанию,
+ *   с параметрами start и end - только свободных в этом периоде
+ * - GET /items/{id}/availability?from={from}&to={to} - занятые периоды и свободные окна вещи
  */
 
 @RestController
@@ -50,9 +57,11 @@ public class ItemController {
 
     @GetMapping("/{id}")
     public ItemResponseDto getById(@RequestHeader(Constants.HEADER) Long userId,
-                                   @PathVariable("id") Long itemId) {
+                                   @PathVariable("id") Long itemId,
+                                   WebRequest request) {
         log.info("Получен запрос к эндпоинту: /items geById с id={}", itemId);
-        return itemService.getById(itemId, userId);
+        ItemResponseDto item = itemService.getById(itemId, userId);
+        return request.checkNotModified(ItemMapper.toETag(item)) ? null : item;
     }
 
     @PatchMapping("/{id}")
@@ -72,9 +81,26 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemResponseDto> search(@RequestParam("text") String text) {
-        log.info("Получен запрос к эндпоинту: items/search с text: {}", text);
-        return itemService.search(text);
+    public List<ItemResponseDto> search(@RequestParam("text") String text,
+                                        @RequestParam(name = "start", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                        @RequestParam(name = "end", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                        @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Получен запрос к эндпоинту: items/search с text: {}, start={}, end={}, from={}, size={}",
+                text, start, end, from, size);
+        return itemService.search(text, start, end, from, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable("id") Long itemId,
+                                               @RequestParam("from")
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam("to")
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: /items/{id}/availability с id={}, from={}, to={}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
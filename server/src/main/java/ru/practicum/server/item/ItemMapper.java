@@ -1,20 +1,19 @@
 package ru.practicum.server.item;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingMapper;
-import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.BookingTimeline;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
 import ru.practicum.server.item.dto.CommentResponseDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemDtoShort;
 import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.item.dto.ItemView;
 import ru.practicum.server.user.User;
+import ru.practicum.server.utils.ETags;
 
-import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Класс описывает ItemMapper, переводит итем в ДТО и обратно
@@ -22,6 +21,35 @@ import java.util.Optional;
 
 @UtilityClass
 public class ItemMapper {
+    public ItemResponseDto toItemResponseDto(ItemView item, BookingTimeline timeline,
+                                             List<CommentResponseDto> comment) {
+        return ItemResponseDto
+                .builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .owner(new ItemResponseDto.Owner(item.getOwnerId(), item.getOwnerName()))
+                .available(item.getAvailable())
+                .lastBooking(timeline.findLast(item.getId()).map(BookingMapper::toBookingDtoForItem).orElse(null))
+                .nextBooking(timeline.findNext(item.getId()).map(BookingMapper::toBookingDtoForItem).orElse(null))
+                .comments(comment)
+                .requestId(item.getRequestId())
+                .version(item.getVersion())
+                .build();
+    }
+
+    public ItemDtoShort toItemDtoShort(ItemView item) {
+        return ItemDtoShort
+                .builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .version(item.getVersion())
+                .build();
+    }
+
     public ItemDtoShort toItemDtoShort(Item item) {
         return ItemDtoShort
                 .builder()
@@ -30,6 +58,7 @@ public class ItemMapper {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequestId())
+                .version(item.getVersion())
                 .build();
     }
 
@@ -44,32 +73,14 @@ public class ItemMapper {
                 .build();
     }
 
-    public ItemResponseDto toItemResponseDto(Item item, List<Booking> booking, List<CommentResponseDto> comment) {
-        BookingDtoForItem bookingLast = null;
-        BookingDtoForItem bookingNext = null;
-        LocalDateTime time = LocalDateTime.now();
+    public ItemResponseDto toItemResponseDto(Item item, BookingTimeline timeline, List<CommentResponseDto> comment) {
+        BookingDtoForItem bookingLast = timeline.findLast(item.getId())
+                .map(BookingMapper::toBookingDtoForItem)
+                .orElse(null);
+        BookingDtoForItem bookingNext = timeline.findNext(item.getId())
+                .map(BookingMapper::toBookingDtoForItem)
+                .orElse(null);
 
-        if (!booking.isEmpty()) {
-
-            Optional<Booking> bookingLastOld = booking.stream()
-                    .filter(b -> (b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED)))
-                    .filter(b -> (b.getStart().isBefore(time) && b.getEnd().isAfter(time)) || b.getEnd().isBefore(time))
-                    .sorted(Comparator.comparing(Booking::getId).reversed())
-                    .findFirst();
-
-            Optional<Booking> bookingNextOld = booking.stream()
-                    .filter(b -> b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED))
-                    .sorted(Comparator.comparing(Booking::getStart))
-                    .filter(b -> b.getStart().isAfter(time))
-                    .findFirst();
-            if (bookingLastOld.isPresent()) {
-                bookingLast = BookingMapper.toBookingDtoForItem(bookingLastOld.get());
-            }
-            if (bookingNextOld.isPresent()) {
-                bookingNext = BookingMapper.toBookingDtoForItem(bookingNextOld.get());
-            }
-
-        }
         return ItemResponseDto
                 .builder()
                 .id(item.getId())
@@ -81,7 +92,24 @@ public class ItemMapper {
                 .nextBooking(bookingNext)
                 .comments(comment)
                 .requestId(item.getRequestId())
+                .version(item.getVersion())
                 .build();
     }
-}
 
+    /**
+     * ETag ответа GET /items/{id}: версия вещи покрывает ее собственные поля, имя владельца входит значением,
+     * бронирования - id и статусом (BookingSweeper меняет статус, не трогая вещь), а отзывы, которые
+     * не меняются после создания, - своими id.
+     */
+    public String toETag(ItemResponseDto item) {
+        return ETags.of(item.getId(), item.getVersion(),
+                item.getOwner() == null ? null : item.getOwner().getName(),
+                item.getLastBooking() == null ? null : item.getLastBooking().getId(),
+                item.getLastBooking() == null ? null : item.getLastBooking().getStatus(),
+                item.getNextBooking() == null ? null : item.getNextBooking().getId(),
+                item.getNextBooking() == null ? null : item.getNextBooking().getStatus(),
+                item.getComments() == null ? null : item.getComments().stream()
+                        .map(CommentResponseDto::getId)
+                        .collect(Collectors.toList()));
+    }
+}
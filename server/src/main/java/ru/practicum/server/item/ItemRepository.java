@@ -1,19 +1,100 @@
 package ru.practicum.server.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.server.user.User;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.item.dto.ItemView;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Класс описывает interface ItemRepository хранение в базе данных
  */
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerOrderById(User user);
 
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(
-            String name, String description, Boolean available);
+    String SELECT_VIEW = "SELECT i.id AS id, i.name AS name, i.description AS description, " +
+            "i.available AS available, i.requestId AS requestId, o.id AS ownerId, o.name AS ownerName, " +
+            "i.version AS version " +
+            "FROM Item AS i " +
+            "JOIN i.owner AS o ";
 
-    List<Item> findAllByRequestIdIn(List<Long> requestsId);
+    String SEARCH_CONDITION = "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()} " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}) ";
+
+    String SEARCH_ORDER = "ORDER BY CASE " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT(?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()} THEN 0 " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()} THEN 1 " +
+            "ELSE 2 END, i.id";
+
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
+
+    /**
+     * Блокирует строку вещи до конца транзакции (SELECT ... FOR UPDATE): создание бронирований одной вещи
+     * выполняется по очереди, бронирования разных вещей друг друга не ждут.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item AS i WHERE i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    /**
+     * Блокирует строки вещей как findByIdForUpdate. Порядок по id одинаков для всех транзакций,
+     * поэтому пакеты с общими вещами не попадают во взаимную блокировку.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item AS i WHERE i.id IN ?1 ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> ids);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.id = ?1")
+    Optional<ItemView> findViewById(Long id);
+
+    @Query(SELECT_VIEW +
+            "WHERE o.id = ?1 " +
+            "ORDER BY i.id")
+    List<ItemView> findAllViewsByOwnerId(Long ownerId);
+
+    /**
+     * Поиск доступных вещей, у которых text входит в название или описание без учета регистра.
+     * Выдача ранжирована: сначала название начинается с text, затем содержит text, затем совпало только описание.
+     * На PostgreSQL условия LOWER(...) LIKE '%text%' обслуживаются частичными GIN-индексами pg_trgm
+     * items_name_trgm_idx и items_description_trgm_idx (миграция db/vendor/postgresql).
+     */
+    @Query(SELECT_VIEW +
+            SEARCH_CONDITION +
+            SEARCH_ORDER)
+    List<ItemView> searchViews(String text, Pageable page);
+
+    /**
+     * Тот же поиск, что searchViews, без вещей, у которых есть бронирование в одном из statuses,
+     * пересекающееся с [start, end). Пересечения проверяются в том же запросе (NOT EXISTS) по индексу
+     * bookings_item_end_idx: для каждой найденной вещи читаются только ее бронирования, закончившиеся после start.
+     * Все параметры подставляются через SpEL: вместе с ?#{...} обычные ?N Spring Data нумерует неверно.
+     */
+    @Query(SELECT_VIEW +
+            SEARCH_CONDITION +
+            "AND NOT EXISTS (SELECT b.id FROM Booking AS b " +
+            "WHERE b.item.id = i.id AND b.status IN ?#{[1]} AND b.end > ?#{[2]} AND b.start < ?#{[3]}) " +
+            SEARCH_ORDER)
+    List<ItemView> searchFreeViews(String text, Collection<Status> statuses, LocalDateTime start, LocalDateTime end,
+                                   Pageable page);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.id > ?1 " +
+            "ORDER BY i.id")
+    List<ItemView> findAllViewsByIdAfter(Long id, Pageable page);
+
+    @Query(SELECT_VIEW +
+            "WHERE i.requestId IN ?1")
+    List<ItemView> findAllViewsByRequestIdIn(List<Long> requestsId);
 }
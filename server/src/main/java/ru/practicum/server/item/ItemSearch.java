@@ -0,0 +1,20 @@
+package ru.practicum.server.item;
+
+import ru.practicum.server.item.dto.ItemView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс описывает ItemSearch - поиск доступных вещей по вхождению text в название или описание.
+ * Реализация выбирается свойством shareit.search.engine: database (по умолчанию) или memory.
+ */
+public interface ItemSearch {
+
+    List<ItemView> search(String text, int from, int size);
+
+    /**
+     * Поиск, как search, только среди вещей без бронирований в Status.OCCUPYING, пересекающихся с [start, end).
+     */
+    List<ItemView> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+}
@@ -0,0 +1,254 @@
+package ru.practicum.server.item;
+
+import lombok.Getter;
+import ru.practicum.server.item.dto.ItemView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Класс описывает ItemSearchIndex - инвертированный индекс вещей в памяти: слово из названия или описания
+ * отображается в отсортированный список id вещей (posting list).
+ * Поиск дает ту же выдачу, что и ItemRepository.searchViews: каждый фрагмент text из букв и цифр
+ * обязан быть подстрокой какого-то слова вещи, поэтому кандидаты - пересечение объединений posting list
+ * подходящих слов словаря, а затем кандидаты проверяются на вхождение text целиком и доступность.
+ */
+public class ItemSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(ItemView view) {
+        IndexedItem item = new IndexedItem(view);
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(item.getId());
+            items.put(item.getId(), item);
+            for (String token : item.tokens()) {
+                postings.computeIfAbsent(token, key -> new Postings()).add(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwnerId(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = items.values().stream()
+                    .filter(item -> ownerId.equals(item.getOwnerId()))
+                    .map(IndexedItem::getId)
+                    .collect(Collectors.toList());
+            ids.forEach(this::removeUnderLock);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Страница доступных вещей, у которых text входит в название или описание без учета регистра,
+     * в порядке ItemRepository.searchViews: название начинается с text, содержит text, совпало описание, id.
+     */
+    public List<ItemView> search(String text, int from, int size) {
+        String query = lowerCase(text);
+        long limit = (long) from + size;
+        List<List<ItemView>> ranks = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                IndexedItem item = items.get(id);
+                if (item.getAvailable() && item.matches(query)) {
+                    ranks.get(item.rank(query)).add(item);
+                    if (ranks.get(0).size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranks.stream()
+                .flatMap(List::stream)
+                .skip(from)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Id вещей по возрастанию, среди которых есть все вещи, содержащие query в названии или описании.
+     */
+    private long[] candidates(String query) {
+        Set<String> fragments = tokens(query);
+        if (fragments.isEmpty()) {
+            return items.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        long[] result = null;
+        for (String fragment : fragments) {
+            long[] ids = postings.entrySet().stream()
+                    .filter(entry -> entry.getKey().contains(fragment))
+                    .flatMapToLong(entry -> Arrays.stream(entry.getValue().ids, 0, entry.getValue().size))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            result = result == null ? ids : intersect(result, ids);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void removeUnderLock(Long id) {
+        IndexedItem item = items.remove(id);
+        if (item == null) {
+            return;
+        }
+        for (String token : item.tokens()) {
+            Postings list = postings.get(token);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : SEPARATORS.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Отсортированный по возрастанию массив id, в который id вещей чаще всего дописываются в конец.
+     */
+    private static class Postings {
+
+        private long[] ids = new long[1];
+        private int size;
+
+        void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            int position = index < 0 ? -index - 1 : index;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Снимок ItemView, который хранится в индексе, с названием и описанием в нижнем регистре.
+     */
+    @Getter
+    private static class IndexedItem implements ItemView {
+
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long requestId;
+        private final Long ownerId;
+        private final String ownerName;
+        private final Long version;
+        private final String lowerName;
+        private final String lowerDescription;
+
+        IndexedItem(ItemView view) {
+            this.id = view.getId();
+            this.name = view.getName();
+            this.description = view.getDescription();
+            this.available = Boolean.TRUE.equals(view.getAvailable());
+            this.requestId = view.getRequestId();
+            this.ownerId = view.getOwnerId();
+            this.ownerName = view.getOwnerName();
+            this.version = view.getVersion();
+            this.lowerName = lowerCase(view.getName());
+            this.lowerDescription = lowerCase(view.getDescription());
+        }
+
+        Set<String> tokens() {
+            Set<String> tokens = ItemSearchIndex.tokens(lowerName);
+            tokens.addAll(ItemSearchIndex.tokens(lowerDescription));
+            return tokens;
+        }
+
+        boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+
+        int rank(String query) {
+            return lowerName.startsWith(query) ? 0 : lowerName.contains(query) ? 1 : 2;
+        }
+    }
+}
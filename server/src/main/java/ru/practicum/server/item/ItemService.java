@@ -1,18 +1,25 @@
 package ru.practicum.server.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
 import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingCalendar;
 import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingTimeline;
 import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingPeriod;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentResponseDto;
+import ru.practicum.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.item.dto.ItemView;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserMapper;
 import ru.practicum.server.user.UserRepository;
@@ -38,38 +45,76 @@ public class ItemService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final UserService service;
+    private final ItemSearch itemSearch;
+    private final ApplicationEventPublisher publisher;
 
     @Transactional
     public ItemResponseDto create(ItemDto dto, Long userId) {
         User user = UserMapper.toUser(service.getById(userId));
         Item item = ItemMapper.toItem(dto, user);
         Item newItem = itemRepository.save(item);
+        publisher.publishEvent(new ItemChangedEvent(newItem.getId()));
 
-        return ItemMapper.toItemResponseDto(newItem, new ArrayList<>(), new ArrayList<>());
+        return ItemMapper.toItemResponseDto(newItem, BookingTimeline.empty(), new ArrayList<>());
     }
 
     public List<ItemResponseDto> getAll(Long userId) {
         User user = UserMapper.toUser(service.getById(userId));
-        List<Item> itemList = itemRepository.findAllByOwnerOrderById(user);
-        List<Long> itemIdList = itemList.stream().map(Item::getId).collect(Collectors.toList());
+        List<ItemView> itemList = itemRepository.findAllViewsByOwnerId(user.getId());
+        List<Long> itemIdList = itemList.stream().map(ItemView::getId).collect(Collectors.toList());
 
-        List<Booking> booking = bookingRepository.findAllByOwnerIdAndItemIn(userId, itemIdList);
+        BookingTimeline timeline = findTimeline(userId, itemIdList);
         List<CommentResponseDto> commentResponseDto = commentRepository.findAllByAndAuthorName(user.getName())
                 .stream()
                 .map(CommentMapper::toCommentResponseDto).collect(Collectors.toList());
 
         return itemList.stream()
-                .map(item -> ItemMapper.toItemResponseDto(item, booking, commentResponseDto)).collect(Collectors.toList());
+                .map(item -> ItemMapper.toItemResponseDto(item, timeline, commentResponseDto)).collect(Collectors.toList());
     }
 
     public ItemResponseDto getById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ValidationIdException("Item не найден"));
-        List<Booking> booking = bookingRepository.findAllByItemIdAndOwnerId(itemId, userId);
+        ItemView item = itemRepository.findViewById(itemId)
+                .orElseThrow(() -> new ValidationIdException("Item не найден"));
+        BookingTimeline timeline = findTimeline(userId, List.of(itemId));
         List<CommentResponseDto> commentResponseDto = commentRepository.findAllByItemId(itemId)
                 .stream()
                 .map(CommentMapper::toCommentResponseDto).collect(Collectors.toList());
 
-        return ItemMapper.toItemResponseDto(item, booking, commentResponseDto);
+        return ItemMapper.toItemResponseDto(item, timeline, commentResponseDto);
+    }
+
+    /**
+     * Календарь доступности вещи в [from, to). Занятые периоды читаются по индексу (item_id, status, start_date)
+     * только за запрошенный период плюс одно бронирование, начавшееся раньше from, поэтому время ответа
+     * зависит от числа бронирований в периоде, а не от всей истории вещи.
+     */
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ItemIsNotAvailableForBookingException("Начало периода должно быть раньше окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ValidationIdException("Item не найден");
+        }
+        List<BookingPeriod> periods = new ArrayList<>(
+                bookingRepository.findPeriodsBefore(itemId, Status.OCCUPYING, from, PageRequest.of(0, 1)));
+        periods.addAll(bookingRepository.findPeriods(itemId, Status.OCCUPYING, from, to));
+        BookingCalendar calendar = BookingCalendar.of(periods, from, to);
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(calendar.getBusy())
+                .free(calendar.getFree())
+                .build();
+    }
+
+    private BookingTimeline findTimeline(Long ownerId, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return BookingTimeline.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return BookingTimeline.of(bookingRepository.findLastAndNextApproved(ownerId, itemIds, now), now);
     }
 
     @Transactional
@@ -80,28 +125,45 @@ public class ItemService {
         }
 
         fields.forEach((key, value) -> {
-            if (!key.equals("id")) {
+            if (!key.equals("id") && !key.equals("version")) {
                 Field field = ReflectionUtils.findField(Item.class, (String) key);
                 field.setAccessible(true);
                 ReflectionUtils.setField(field, item, value);
             }
         });
         Item newItem = itemRepository.save(item);
-        return ItemMapper.toItemResponseDto(newItem, new ArrayList<>(), new ArrayList<>());
+        publisher.publishEvent(new ItemChangedEvent(newItem.getId()));
+        return ItemMapper.toItemResponseDto(newItem, BookingTimeline.empty(), new ArrayList<>());
     }
 
     @Transactional
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        publisher.publishEvent(new ItemChangedEvent(id));
+    }
+
+    public List<ItemResponseDto> search(String text, Integer from, Integer size) {
+        return search(text, null, null, from, size);
     }
 
-    public List<ItemResponseDto> search(String text) {
+    /**
+     * Поиск доступных вещей; если заданы start и end, только среди свободных в [start, end).
+     */
+    public List<ItemResponseDto> search(String text, LocalDateTime start, LocalDateTime end,
+                                        Integer from, Integer size) {
+        if ((start == null) != (end == null)) {
+            throw new ItemIsNotAvailableForBookingException("Для поиска свободных вещей нужны и start, и end");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ItemIsNotAvailableForBookingException("Начало периода должно быть раньше окончания");
+        }
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> itemList = itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(
-                text, text, true);
-        return itemList.stream().map(item -> ItemMapper.toItemResponseDto(item, new ArrayList<>(), new ArrayList<>())).collect(Collectors.toList());
+        List<ItemView> itemList = start == null
+                ? itemSearch.search(text, Math.max(from, 0), size)
+                : itemSearch.searchFree(text, start, end, Math.max(from, 0), size);
+        return itemList.stream().map(item -> ItemMapper.toItemResponseDto(item, BookingTimeline.empty(), new ArrayList<>())).collect(Collectors.toList());
     }
 
     @Transactional
@@ -0,0 +1,21 @@
+package ru.practicum.server.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интерфейс описывает проекцию CommentView - колонки отзыва и название вещи для CommentResponseDto
+ */
+public interface CommentView {
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    Long getItemId();
+
+    String getItemName();
+}
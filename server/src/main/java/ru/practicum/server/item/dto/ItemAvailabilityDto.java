@@ -0,0 +1,28 @@
+package ru.practicum.server.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.server.booking.dto.BookingPeriod;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Класс описывает модель ItemAvailabilityDto - календарь доступности вещи в периоде [from, to):
+ * слитые занятые периоды (бронирования в Status.OCCUPYING) и свободные окна между ними.
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<BookingPeriod> busy;
+    private List<BookingPeriod> free;
+}
@@ -1,8 +1,10 @@
 package ru.practicum.server.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 /**
@@ -19,4 +21,11 @@ public class ItemDtoShort {
     private String description;
     private Boolean available;
     private Long requestId;
+
+    /**
+     * Версия сущности для ETag, клиенту не передается
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
 }
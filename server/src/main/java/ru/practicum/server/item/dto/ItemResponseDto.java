@@ -1,5 +1,6 @@
 package ru.practicum.server.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
 
@@ -24,6 +25,13 @@ public class ItemResponseDto {
     private BookingDtoForItem nextBooking;
     private List<CommentResponseDto> comments;
 
+    /**
+     * Версия сущности для ETag, клиенту не передается
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
     @Getter
     @Setter
     @NoArgsConstructor
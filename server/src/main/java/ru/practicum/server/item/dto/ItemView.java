@@ -0,0 +1,24 @@
+package ru.practicum.server.item.dto;
+
+/**
+ * Интерфейс описывает проекцию ItemView - колонки вещи и ее владельца,
+ * которые нужны для ItemResponseDto и ItemDtoShort, без загрузки сущностей в контекст персистентности
+ */
+public interface ItemView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getOwnerId();
+
+    String getOwnerName();
+
+    Long getVersion();
+}
@@ -0,0 +1,149 @@
+package ru.practicum.server.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Класс описывает OutboxDispatcher - фоновую доставку событий outbox слушателям OutboxListener.
+ * Раз в shareit.outbox.poll-delay мс таблица разбирается пачками по shareit.outbox.batch-size событий:
+ * пачка блокируется, доставляется и удаляется в одной транзакции. Упавшее событие остается в таблице
+ * и повторяется не раньше next_attempt_at: пауза начинается с shareit.outbox.retry-delay мс и удваивается
+ * после каждой ошибки, но не больше shareit.outbox.max-retry-delay мс. После MAX_ATTEMPTS попыток
+ * (по умолчанию около 8,5 минуты повторов) событие удаляется с ошибкой в логе.
+ * Метрики: shareit.outbox.batch.size - размер пачки, shareit.outbox.dispatch.lag - время от записи события
+ * до доставки, shareit.outbox.failures - неудачные доставки.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.dispatcher.enabled", havingValue = "true")
+public class OutboxDispatcher {
+
+    static final int MAX_ATTEMPTS = 10;
+
+    private final OutboxRepository outboxRepository;
+
+    private final ObjectProvider<OutboxListener> listeners;
+
+    private final TransactionTemplate transaction;
+
+    private final int batchSize;
+
+    private final Duration retryDelay;
+
+    private final Duration maxRetryDelay;
+
+    private final DistributionSummary batchSizes;
+
+    private final Timer lag;
+
+    private final Counter failures;
+
+    public OutboxDispatcher(OutboxRepository outboxRepository, ObjectProvider<OutboxListener> listeners,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.retry-delay:1000}") long retryDelay,
+                            @Value("${shareit.outbox.max-retry-delay:300000}") long maxRetryDelay,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retryDelay = Duration.ofMillis(retryDelay);
+        this.maxRetryDelay = Duration.ofMillis(maxRetryDelay);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        batchSizes = DistributionSummary.builder("shareit.outbox.batch.size")
+                .description("Событий outbox в разобранной пачке")
+                .register(registry);
+        lag = Timer.builder("shareit.outbox.dispatch.lag")
+                .description("Время от записи события outbox до доставки слушателям")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        failures = Counter.builder("shareit.outbox.failures")
+                .description("Неудачные доставки событий outbox")
+                .register(registry);
+    }
+
+    /**
+     * Разбирает пачки, пока они полностью уходят из таблицы, чтобы накопившиеся события не ждали следующего
+     * запуска. Пачка с ошибками доставки останавливает разбор до следующего запуска: слушатель, скорее всего,
+     * недоступен, и повторять сразу незачем.
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay:200}")
+    public void drain() {
+        int finished;
+        do {
+            finished = dispatchBatch();
+        } while (finished == batchSize);
+    }
+
+    /**
+     * Доставляет одну пачку и возвращает число событий, удаленных из таблицы: доставленных
+     * и исчерпавших MAX_ATTEMPTS. Остальным упавшим событиям назначается next_attempt_at.
+     */
+    public int dispatchBatch() {
+        Integer size = transaction.execute(status -> {
+            List<OutboxEvent> batch = outboxRepository.findBatchForUpdate(LocalDateTime.now(), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            batchSizes.record(batch.size());
+            List<Long> finished = new ArrayList<>();
+            for (OutboxEvent event : batch) {
+                if (deliver(event)) {
+                    lag.record(Duration.between(event.getCreated(), LocalDateTime.now()));
+                    finished.add(event.getId());
+                } else if (event.getAttempts() >= MAX_ATTEMPTS) {
+                    log.error("Событие outbox {} не доставлено за {} попыток и удалено", event, MAX_ATTEMPTS);
+                    finished.add(event.getId());
+                } else {
+                    event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+                }
+            }
+            if (!finished.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(finished);
+            }
+            return finished.size();
+        });
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Пауза перед повтором после attempts неудачных доставок: retryDelay * 2^(attempts - 1), не больше maxRetryDelay.
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        List<OutboxListener> targets = listeners.orderedStream()
+                .filter(listener -> listener.getType() == event.getType())
+                .collect(Collectors.toList());
+        try {
+            targets.forEach(listener -> listener.handle(event));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось доставить событие outbox {}", event, e);
+            failures.increment();
+            event.setAttempts(event.getAttempts() + 1);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.server.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Класс описывает модель OutboxEvent - событие, которое записывается в одной транзакции с изменением данных
+ * и после коммита доставляется слушателям OutboxListener в OutboxDispatcher.
+ * attempts - число неудачных доставок, nextAttemptAt - момент, раньше которого событие не выбирается.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(name = "event_type")
+    private OutboxEventType type;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    public OutboxEvent(OutboxEventType type, Long aggregateId, String payload) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.created = LocalDateTime.now();
+        this.nextAttemptAt = created;
+    }
+}
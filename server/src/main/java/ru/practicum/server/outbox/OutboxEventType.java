@@ -0,0 +1,9 @@
+package ru.practicum.server.outbox;
+
+/**
+ * Класс описывает OutboxEventType - тип события outbox
+ * BOOKING_STATUS_CHANGED — владелец подтвердил или отклонил бронирование aggregateId, payload - новый Status.
+ */
+public enum OutboxEventType {
+    BOOKING_STATUS_CHANGED
+}
@@ -0,0 +1,13 @@
+package ru.practicum.server.outbox;
+
+/**
+ * Интерфейс описывает OutboxListener - реакцию на события outbox одного типа. Слушатели - бины Spring,
+ * OutboxDispatcher вызывает их в своем потоке, а не в потоке запроса, изменившего данные.
+ * Доставка не меньше одного раза: если один из слушателей события упал, событие повторяется для всех его слушателей.
+ */
+public interface OutboxListener {
+
+    OutboxEventType getType();
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.server.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Класс описывает interface OutboxRepository хранение событий outbox в базе данных
+ */
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long>, OutboxRepositoryCustom {
+}
@@ -0,0 +1,13 @@
+package ru.practicum.server.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxRepositoryCustom {
+
+    /**
+     * Первые size событий, у которых наступило next_attempt_at, заблокированные до конца транзакции.
+     * На PostgreSQL события, которые разбирает другой экземпляр сервера, пропускаются (RowLocks).
+     */
+    List<OutboxEvent> findBatchForUpdate(LocalDateTime now, int size);
+}
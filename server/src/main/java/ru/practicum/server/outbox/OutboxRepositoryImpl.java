@@ -0,0 +1,35 @@
+package ru.practicum.server.outbox;
+
+import ru.practicum.server.utils.RowLocks;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Класс описывает OutboxRepositoryImpl - выборка пачки событий native-запросом: окончание FOR UPDATE
+ * зависит от базы данных, а JPQL с блокировкой и SKIP LOCKED в H2 не выполняется.
+ */
+public class OutboxRepositoryImpl implements OutboxRepositoryCustom {
+
+    private final String forUpdateSkipLocked;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OutboxRepositoryImpl(DataSource dataSource) {
+        forUpdateSkipLocked = RowLocks.forUpdateSkipLocked(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OutboxEvent> findBatchForUpdate(LocalDateTime now, int size) {
+        return entityManager.createNativeQuery("SELECT * FROM outbox WHERE next_attempt_at <= :now " +
+                        "ORDER BY next_attempt_at, outbox_id LIMIT :size" + forUpdateSkipLocked, OutboxEvent.class)
+                .setParameter("now", now)
+                .setParameter("size", size)
+                .getResultList();
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.server.request;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
@@ -20,7 +21,8 @@ import java.time.LocalDateTime;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     @Column(name = "request_id")
     private Long id;
 
@@ -32,4 +34,13 @@ public class ItemRequest {
 
     @Column(name = "requestor")
     private Long requestor;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
+
+    public ItemRequest(Long id, String description, LocalDateTime created, Long requestor) {
+        this(id, description, created, requestor, null);
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.server.request.dto.ItemRequestResponseDto;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.utils.Constants;
@@ -19,7 +20,8 @@ import java.util.List;
  * Для каждого запроса должны указываться описание, дата и время создания и список ответов в формате:
  * id вещи, название, id владельца. Так в дальнейшем, используя указанные id вещей,
  * можно будет получить подробную информацию о каждой вещи.
- * Запросы должны возвращаться в отсортированном порядке от более новых к более старым
+ * Запросы должны возвращаться в отсортированном порядке от более новых к более старым.
+ * Ответ содержит ETag: на совпавший If-None-Match отвечает 304 без тела
  * <p>
  * GET /requests/all?from={from}&size={size} — получить список запросов, созданных другими пользователями.
  * С помощью этого эндпоинта пользователи смогут просматривать существующие запросы, на которые они могли бы ответить.
@@ -47,9 +49,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestResponseDto> getForUser(@RequestHeader(Constants.HEADER) Long userId) {
+    public List<ItemRequestResponseDto> getForUser(@RequestHeader(Constants.HEADER) Long userId,
+                                                   WebRequest request) {
         log.info("Получен запрос к эндпоинту /requests getForUser с headers {}", userId);
-        return requestService.getForUser(userId);
+        List<ItemRequestResponseDto> requests = requestService.getForUser(userId);
+        return request.checkNotModified(ItemRequestMapper.toETag(requests)) ? null : requests;
     }
 
     @GetMapping("/all")
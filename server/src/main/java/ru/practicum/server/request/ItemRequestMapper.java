@@ -4,9 +4,12 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.server.item.dto.ItemDtoShort;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.dto.ItemRequestResponseDto;
+import ru.practicum.server.request.dto.ItemRequestView;
+import ru.practicum.server.utils.ETags;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Класс описывает ItemRequestMapper, переводит ItemRequest в ДТО и обратно
@@ -22,12 +25,36 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public ItemRequestResponseDto toItemRequestResponseDto(ItemRequestView itemRequest, List<ItemDtoShort> items) {
+        return ItemRequestResponseDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .items(items)
+                .version(itemRequest.getVersion())
+                .build();
+    }
+
     public ItemRequestResponseDto toItemRequestResponseDto(ItemRequest itemRequest, List<ItemDtoShort> items) {
         return ItemRequestResponseDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .created(itemRequest.getCreated())
                 .items(items)
+                .version(itemRequest.getVersion())
                 .build();
     }
+
+    /**
+     * ETag ответа GET /requests: версии запросов и вещей-ответов в порядке выдачи.
+     */
+    public String toETag(List<ItemRequestResponseDto> requests) {
+        return ETags.of(requests.stream()
+                .map(request -> request.getId() + ":" + request.getVersion() + (request.getItems() == null
+                        ? List.of()
+                        : request.getItems().stream()
+                                .map(item -> item.getId() + ":" + item.getVersion())
+                                .collect(Collectors.toList())))
+                .toArray());
+    }
 }
@@ -2,12 +2,16 @@ package ru.practicum.server.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.server.request.dto.ItemRequestView;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequestorOrderByCreatedDesc(Long userId);
+    Optional<ItemRequestView> findViewById(Long id);
 
-    List<ItemRequest> findAllByRequestorIsNotOrderByCreatedDesc(Long requestor, Pageable page);
+    List<ItemRequestView> findAllByRequestorOrderByCreatedDesc(Long userId);
+
+    List<ItemRequestView> findAllByRequestorIsNotOrderByCreatedDesc(Long requestor, Pageable page);
 }
@@ -4,12 +4,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.server.exceptions.ValidationIdException;
-import ru.practicum.server.item.Item;
 import ru.practicum.server.item.ItemMapper;
 import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.item.dto.ItemDtoShort;
+import ru.practicum.server.item.dto.ItemView;
 import ru.practicum.server.request.dto.ItemRequestDto;
 import ru.practicum.server.request.dto.ItemRequestResponseDto;
+import ru.practicum.server.request.dto.ItemRequestView;
 import ru.practicum.server.user.UserService;
 
 import java.util.*;
@@ -35,21 +36,21 @@ public class ItemRequestService {
 
     public List<ItemRequestResponseDto> getForUser(Long userId) {
         userService.getById(userId);
-        List<ItemRequest> itemRequests = requestRepository.findAllByRequestorOrderByCreatedDesc(userId);
+        List<ItemRequestView> itemRequests = requestRepository.findAllByRequestorOrderByCreatedDesc(userId);
         return getItemRequestResponseDto(itemRequests);
     }
 
     public List<ItemRequestResponseDto> getOtherUsers(Long userId, Integer from, Integer size) {
         userService.getById(userId);
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        List<ItemRequest> itemRequests = requestRepository.findAllByRequestorIsNotOrderByCreatedDesc(userId, page);
+        List<ItemRequestView> itemRequests = requestRepository.findAllByRequestorIsNotOrderByCreatedDesc(userId, page);
         return getItemRequestResponseDto(itemRequests);
     }
 
-    private List<ItemRequestResponseDto> getItemRequestResponseDto(List<ItemRequest> itemRequests) {
-        List<Item> items = itemRepository.findAllByRequestIdIn(
+    private List<ItemRequestResponseDto> getItemRequestResponseDto(List<ItemRequestView> itemRequests) {
+        List<ItemView> items = itemRepository.findAllViewsByRequestIdIn(
                 itemRequests.stream()
-                        .map(ItemRequest::getId)
+                        .map(ItemRequestView::getId)
                         .collect(Collectors.toList()));
         List<ItemDtoShort> itemDtoShorts = items.stream().map(ItemMapper::toItemDtoShort).collect(Collectors.toList());
 
@@ -62,9 +63,9 @@ public class ItemRequestService {
 
     public ItemRequestResponseDto getRequestById(Long userId, Long requestId) {
         userService.getById(userId);
-        ItemRequest itemRequest = requestRepository.findById(requestId)
+        ItemRequestView itemRequest = requestRepository.findViewById(requestId)
                 .orElseThrow(() -> new ValidationIdException("Запрос не найден"));
-        List<Item> items = itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()));
+        List<ItemView> items = itemRepository.findAllViewsByRequestIdIn(List.of(itemRequest.getId()));
         List<ItemDtoShort> itemDtoShorts = items.stream().map(ItemMapper::toItemDtoShort).collect(Collectors.toList());
 
         return ItemRequestMapper.toItemRequestResponseDto(itemRequest, itemDtoShorts);
@@ -1,8 +1,10 @@
 package ru.practicum.server.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.server.item.dto.ItemDtoShort;
 
@@ -23,4 +25,11 @@ public class ItemRequestResponseDto {
     private String description;
     private LocalDateTime created;
     private List<ItemDtoShort> items = new ArrayList<>();
+
+    /**
+     * Версия сущности для ETag, клиенту не передается
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
 }
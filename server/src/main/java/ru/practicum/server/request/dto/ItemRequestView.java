@@ -0,0 +1,17 @@
+package ru.practicum.server.request.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интерфейс описывает проекцию ItemRequestView - колонки запроса, которые нужны для ItemRequestResponseDto
+ */
+public interface ItemRequestView {
+
+    Long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+
+    Long getVersion();
+}
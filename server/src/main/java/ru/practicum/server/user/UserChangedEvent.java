@@ -0,0 +1,16 @@
+package ru.practicum.server.user;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Класс описывает UserChangedEvent - пользователь userId изменен или (deleted) удален вместе со своими вещами
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    private final boolean deleted;
+}
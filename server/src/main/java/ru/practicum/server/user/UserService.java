@@ -1,6 +1,7 @@
 package ru.practicum.server.user;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -21,11 +22,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher publisher;
 
+    /**
+     * Id выдает последовательность, и INSERT без flush ушел бы только при коммите:
+     * saveAndFlush сразу проверяет уникальность email.
+     */
     @Transactional
     public UserDto create(UserDto dto) {
         User user = UserMapper.toUser(dto);
-        User newUser = userRepository.save(user);
+        User newUser = userRepository.saveAndFlush(user);
         UserDto userDto =  UserMapper.toUserDto(newUser);
         return userDto;
     }
@@ -51,12 +57,14 @@ public class UserService {
             }
         });
         User newUser = userRepository.save(user);
+        publisher.publishEvent(new UserChangedEvent(id, false));
         return UserMapper.toUserDto(newUser);
     }
 
     @Transactional
     public void delete(Long id) {
         userRepository.deleteById(id);
+        publisher.publishEvent(new UserChangedEvent(id, true));
     }
 
 }
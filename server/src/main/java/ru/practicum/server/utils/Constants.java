@@ -2,4 +2,5 @@ package ru.practicum.server.utils;
 
 public class Constants {
     public static final String HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
@@ -0,0 +1,19 @@
+package ru.practicum.server.utils;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Класс описывает ETags - сильные ETag ответов GET, которые строятся не из тела ответа, а из версий
+ * сущностей (@Version) и id связанных записей, так что проверка If-None-Match не требует сериализации.
+ */
+@UtilityClass
+public class ETags {
+
+    public String of(Object... parts) {
+        return "\"" + DigestUtils.md5DigestAsHex(Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.server.utils;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Класс описывает FromSizeRequest - постраничный запрос, который начинается ровно с элемента from,
+ * даже если from не кратен size (PageRequest.of(from / size, size) в этом случае смещается к началу страницы).
+ */
+@EqualsAndHashCode(callSuper = true)
+public class FromSizeRequest extends PageRequest {
+
+    private final int from;
+
+    public FromSizeRequest(int from, int size) {
+        super(from / size, size, Sort.unsorted());
+        this.from = from;
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
+    }
+}
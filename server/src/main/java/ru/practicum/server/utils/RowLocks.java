@@ -0,0 +1,27 @@
+package ru.practicum.server.utils;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Класс описывает RowLocks - окончание SELECT, блокирующее выбранные строки до конца транзакции.
+ * На PostgreSQL это FOR UPDATE SKIP LOCKED: строки, которые уже забрал другой экземпляр сервера, пропускаются,
+ * и экземпляры разбирают разные пачки, не дожидаясь друг друга. В H2 SKIP LOCKED нет, там FOR UPDATE.
+ */
+public final class RowLocks {
+
+    private RowLocks() {
+    }
+
+    public static String forUpdateSkipLocked(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product) ? " FOR UPDATE SKIP LOCKED" : " FOR UPDATE";
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Не удалось определить базу данных", e);
+        }
+    }
+}
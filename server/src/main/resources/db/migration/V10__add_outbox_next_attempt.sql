@@ -0,0 +1,5 @@
+-- Повтор упавшей доставки outbox с экспоненциальной паузой: OutboxDispatcher выбирает только события,
+-- у которых наступило next_attempt_at. Уже записанные события доступны сразу.
+ALTER TABLE outbox ADD COLUMN IF NOT EXISTS next_attempt_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS outbox_next_attempt_idx ON outbox (next_attempt_at, outbox_id);
@@ -1,5 +1,4 @@
-DROP TABLE IF EXISTS bookings, items, comments, users, requests CASCADE;
-
+-- Исходная схема ShareIt. Скрипт идемпотентен: на базе, созданной прежним schema.sql, ничего не меняет.
 CREATE TABLE IF NOT EXISTS users(
    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
    email varchar(100) NOT NULL UNIQUE,
@@ -32,4 +31,4 @@ CREATE TABLE IF NOT EXISTS comments(
     text varchar(100) NOT NULL,
     item_id BIGINT REFERENCES items(item_id) ON DELETE CASCADE,
     author_name varchar NOT NULL,
-    created timestamp);
\ No newline at end of file
+    created timestamp);
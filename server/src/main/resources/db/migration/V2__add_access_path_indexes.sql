@@ -0,0 +1,20 @@
+-- Составные индексы под запросы BookingRepository, ItemRepository, CommentRepository и ItemRequestRepository.
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings(booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings(booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings(item_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings(item_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS items_user_idx ON items(user_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items(request);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments(item_id);
+
+CREATE INDEX IF NOT EXISTS comments_author_name_idx ON comments(author_name);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests(requestor, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests(created DESC);
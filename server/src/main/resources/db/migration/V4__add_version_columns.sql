@@ -0,0 +1,7 @@
+-- Счетчики версий для оптимистической блокировки (@Version) и ETag ответов GET /items/{id}, /bookings/{id}, /requests.
+-- Номер V4: V3 занят миграцией db/vendor/postgresql.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
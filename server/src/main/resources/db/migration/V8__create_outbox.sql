@@ -0,0 +1,11 @@
+-- Outbox: события, записанные в одной транзакции с изменением данных, их разбирает OutboxDispatcher.
+-- Без внешнего ключа на bookings: событие переживает удаление бронирования.
+CREATE SEQUENCE IF NOT EXISTS outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox(
+    outbox_id BIGINT PRIMARY KEY,
+    event_type varchar(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload varchar(100),
+    created timestamp NOT NULL,
+    attempts INT NOT NULL DEFAULT 0);
@@ -0,0 +1,86 @@
+package ru.practicum.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.server.ShareItServer;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemAvailabilityDto;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк календаря доступности (ItemService.getAvailability) на год для вещи с длинной историей:
+ * history бронирований по одному каждые 4 часа начиная с 2003 года. Контекст поднимается на H2
+ * с настройками application-test.properties. Запуск - метод main из IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemAvailabilityBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2003, 1, 1, 0, 0);
+
+    @Param({"50000"})
+    private int history;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    private Long itemId;
+
+    private LocalDateTime from;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=application-test",
+                        "spring.config.location=classpath:application-test.properties")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        User owner = context.getBean(UserRepository.class).save(new User(null, "Owner", "owner@benchmark.test"));
+        User booker = context.getBean(UserRepository.class).save(new User(null, "Booker", "booker@benchmark.test"));
+        Item item = context.getBean(ItemRepository.class).save(new Item(null, "Дрель", "Ударная", owner, true, null));
+        itemId = item.getId();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("INSERT INTO bookings (booking_id, item_id, start_date, end_date, booker_id, status) " +
+                "SELECT -X, " + itemId + ", DATEADD('HOUR', X * 4, TIMESTAMP '2003-01-01 00:00:00'), " +
+                "DATEADD('HOUR', X * 4 + 3, TIMESTAMP '2003-01-01 00:00:00'), " + booker.getId() + ", " +
+                "CASE MOD(X, 3) WHEN 0 THEN 'APPROVED' WHEN 1 THEN 'WAITING' ELSE 'REJECTED' END " +
+                "FROM SYSTEM_RANGE(1, " + history + ")");
+        jdbcTemplate.execute("ANALYZE");
+        from = EPOCH.plusYears(20).plusHours(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemAvailabilityDto availability() {
+        return itemService.getAvailability(itemId, from, from.plusYears(1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemAvailabilityBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
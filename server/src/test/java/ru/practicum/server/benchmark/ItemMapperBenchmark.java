@@ -0,0 +1,147 @@
+package ru.practicum.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingTimeline;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingShort;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH-бенчмарк поиска lastBooking/nextBooking для всех вещей владельца (ItemService.getAll):
+ * прежний полный перебор бронирований для каждой вещи против индекса BookingTimeline.
+ * Запуск - метод main из IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int bookingsPerOwner;
+
+    @Param({"2000"})
+    private int itemsPerOwner;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<BookingShort> bookingShorts;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        now = LocalDateTime.now();
+        User owner = new User(1L, "Owner", "owner@mail.ru");
+        User booker = new User(2L, "Booker", "booker@mail.ru");
+
+        items = new ArrayList<>(itemsPerOwner);
+        for (long id = 1; id <= itemsPerOwner; id++) {
+            items.add(new Item(id, "Item " + id, "Description " + id, owner, true, null));
+        }
+
+        bookings = new ArrayList<>(bookingsPerOwner);
+        for (long id = 1; id <= bookingsPerOwner; id++) {
+            Item item = items.get(random.nextInt(itemsPerOwner));
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            Status status = random.nextInt(10) == 0 ? Status.REJECTED : Status.APPROVED;
+            bookings.add(new Booking(id, item, start, start.plusHours(1 + random.nextInt(48)), booker, status));
+        }
+        bookingShorts = bookings.stream().map(BookingRow::new).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(findLastByScan(item));
+            blackhole.consume(findNextByScan(item));
+        }
+    }
+
+    @Benchmark
+    public void timeline(Blackhole blackhole) {
+        BookingTimeline timeline = BookingTimeline.of(bookingShorts, now);
+        for (Item item : items) {
+            blackhole.consume(timeline.findLast(item.getId()));
+            blackhole.consume(timeline.findNext(item.getId()));
+        }
+    }
+
+    private Optional<Booking> findLastByScan(Item item) {
+        return bookings.stream()
+                .filter(b -> (b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED)))
+                .filter(b -> (b.getStart().isBefore(now) && b.getEnd().isAfter(now)) || b.getEnd().isBefore(now))
+                .sorted(Comparator.comparing(Booking::getId).reversed())
+                .findFirst();
+    }
+
+    private Optional<Booking> findNextByScan(Item item) {
+        return bookings.stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED))
+                .sorted(Comparator.comparing(Booking::getStart))
+                .filter(b -> b.getStart().isAfter(now))
+                .findFirst();
+    }
+
+    private static final class BookingRow implements BookingShort {
+        private final Booking booking;
+
+        private BookingRow(Booking booking) {
+            this.booking = booking;
+        }
+
+        @Override
+        public Long getId() {
+            return booking.getId();
+        }
+
+        @Override
+        public Long getItemId() {
+            return booking.getItem().getId();
+        }
+
+        @Override
+        public LocalDateTime getStartDate() {
+            return booking.getStart();
+        }
+
+        @Override
+        public LocalDateTime getEndDate() {
+            return booking.getEnd();
+        }
+
+        @Override
+        public Long getBookerId() {
+            return booking.getBooker().getId();
+        }
+
+        @Override
+        public Status getStatus() {
+            return booking.getStatus();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.server.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.server.item.ItemSearchIndex;
+import ru.practicum.server.item.dto.ItemView;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк ItemSearchIndex на синтетическом каталоге: время построения индекса при старте (build)
+ * и время поиска по готовому индексу (search). Объем кучи, занятой индексом, печатается после setUp.
+ * Запуск - метод main из IDE, для 1 000 000 вещей нужна куча не меньше 4 ГБ.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"дре", "ль", "пи", "ла", "шу", "ру", "по", "верт", "лест", "ни",
+            "ца", "мо", "ток", "ка", "тер", "са", "ней", "ро", "ва", "тель", "ин", "стру", "мент", "ящ", "ик"};
+
+    @Param({"1000000"})
+    private int items;
+
+    @Param({"дрель", "ла", "мотор ка"})
+    private String text;
+
+    private List<ItemView> views;
+
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        views = new ArrayList<>(items);
+        for (long id = 1; id <= items; id++) {
+            views.add(new View(id, phrase(random, 2), phrase(random, 8), random.nextInt(4) > 0,
+                    null, id % 1000, "Owner " + id % 1000, 0L));
+        }
+        long before = usedHeap();
+        index = build();
+        long after = usedHeap();
+        System.out.printf("%nItemSearchIndex: %d вещей, %d МБ кучи%n", index.size(), (after - before) >> 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public ItemSearchIndex build() {
+        ItemSearchIndex result = new ItemSearchIndex();
+        views.forEach(result::put);
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<ItemView> search() {
+        return index.search(text, 0, 10);
+    }
+
+    private static String phrase(Random random, int maxWords) {
+        StringBuilder phrase = new StringBuilder();
+        int words = 1 + random.nextInt(maxWords);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                phrase.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return phrase.toString();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class View implements ItemView {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long requestId;
+        private final Long ownerId;
+        private final String ownerName;
+        private final Long version;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.server.config;
+
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void shouldBeDisabledByDefault() {
+        contextRunner.run(context -> assertFalse(context.containsBean("virtualThreadProtocolHandlerCustomizer")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRunTomcatRequestsOnVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "виртуальные потоки доступны с Java 21");
+        contextRunner.withPropertyValues("shareit.threads.virtual=true").run(context -> {
+            Http11NioProtocol protocol = new Http11NioProtocol();
+
+            TomcatProtocolHandlerCustomizer<Http11NioProtocol> customizer =
+                    context.getBean(TomcatProtocolHandlerCustomizer.class);
+            customizer.customize(protocol);
+
+            assertTrue(context.getBeansOfType(ExecutorService.class).isEmpty());
+            ExecutorService executor = assertInstanceOf(ExecutorService.class, protocol.getExecutor());
+            assertTrue(executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual")
+                    .invoke(Thread.currentThread())).get());
+        });
+    }
+
+    @Test
+    void shouldFailFastBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21, "проверка для JDK без виртуальных потоков");
+        contextRunner.withPropertyValues("shareit.threads.virtual=true").run(context -> {
+            Throwable cause = context.getStartupFailure();
+            while (cause != null && !(cause instanceof IllegalStateException)) {
+                cause = cause.getCause();
+            }
+
+            assertNotNull(cause);
+            assertTrue(cause.getMessage().contains("Java 21+"));
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.server.config;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import ru.practicum.server.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Нагрузочное сравнение пула платформенных потоков Tomcat (200 по умолчанию) и виртуальных потоков
+ * (shareit.threads.virtual=true): для каждого числа одновременных клиентов из CLIENTS каждый клиент
+ * последовательно отправляет ROUNDS запросов, в журнал пишутся пропускная способность и p99 задержки.
+ * Обработчик запроса блокирует поток на DELAY - так же, как ожидание ответа JDBC или HTTP.
+ * Встроенная H2 для этого не подходит: ее сессии синхронизированы и закрепили бы виртуальные потоки.
+ * В обычный mvn test не входит, запуск - с -Dshareit.test.excluded-groups=none (см. server/pom.xml);
+ * виртуальный режим нужен JDK 21+, для 20 000 клиентов нужен ulimit -n от 50000.
+ * Параметры: -Dshareit.load.clients=200,2000,20000 -Dshareit.load.rounds=5 -Dshareit.load.delay=100 (мс).
+ */
+@Slf4j
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final List<Integer> CLIENTS = Arrays.stream(
+                    System.getProperty("shareit.load.clients", "200,2000,20000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .collect(Collectors.toList());
+
+    private static final int ROUNDS = Integer.getInteger("shareit.load.rounds", 5);
+
+    private static final Duration DELAY = Duration.ofMillis(Long.getLong("shareit.load.delay", 100));
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldReportThroughputAndP99(boolean virtual) {
+        assumeTrue(!virtual || Runtime.version().feature() >= 21, "виртуальные потоки доступны с Java 21");
+        int maxClients = Collections.max(CLIENTS);
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try (ConfigurableApplicationContext context = start(virtual, maxClients)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load/blocking"))
+                    .timeout(Duration.ofMinutes(5))
+                    .build();
+            run(http, request, CLIENTS.get(0), 1);
+
+            for (int clients : CLIENTS) {
+                Result result = run(http, request, clients, ROUNDS);
+                log.info("{} потоки, {} клиентов: {} запросов/с, p99 {} мс, ошибок {}",
+                        virtual ? "виртуальные" : "платформенные", clients, Math.round(result.throughput),
+                        result.p99Millis, result.failed);
+
+                assertEquals(0, result.failed, () -> "Ошибки при " + clients + " клиентах");
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int maxClients) {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .initializers(context -> ((GenericApplicationContext) context).registerBean("blockingRoute",
+                        RouterFunction.class, VirtualThreadsLoadTest::blockingRoute))
+                .properties("spring.config.name=application-test",
+                        "spring.config.location=classpath:application-test.properties",
+                        "spring.datasource.url=jdbc:h2:mem:load",
+                        "server.port=0",
+                        "server.tomcat.max-connections=" + (maxClients + 100),
+                        "server.tomcat.accept-count=" + maxClients,
+                        "shareit.threads.virtual=" + virtual,
+                        "logging.level.root=WARN",
+                        "logging.level." + VirtualThreadsLoadTest.class.getName() + "=INFO")
+                .run();
+    }
+
+    private static RouterFunction<ServerResponse> blockingRoute() {
+        return RouterFunctions.route()
+                .GET("/load/blocking", request -> {
+                    Thread.sleep(DELAY.toMillis());
+                    return ServerResponse.ok().build();
+                })
+                .build();
+    }
+
+    private static Result run(HttpClient http, HttpRequest request, int clients, int rounds) {
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+        long started = System.nanoTime();
+        List<CompletableFuture<Void>> sessions = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            sessions.add(session(http, request, rounds, latencies, failed));
+        }
+        CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p99 = sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000_000;
+        return new Result(clients * rounds / seconds, p99, failed.get());
+    }
+
+    /**
+     * Клиент с закрытым циклом: следующий запрос уходит только после ответа на предыдущий.
+     */
+    private static CompletableFuture<Void> session(HttpClient http, HttpRequest request, int rounds,
+                                                   Queue<Long> latencies, AtomicInteger failed) {
+        if (rounds == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long started = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    latencies.add(System.nanoTime() - started);
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> session(http, request, rounds - 1, latencies, failed));
+    }
+
+    @AllArgsConstructor
+    private static class Result {
+        private final double throughput;
+        private final long p99Millis;
+        private final int failed;
+    }
+}
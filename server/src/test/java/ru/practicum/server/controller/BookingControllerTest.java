@@ -8,13 +8,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.server.booking.BookingController;
+import ru.practicum.server.booking.BookingCursor;
+import ru.practicum.server.booking.BookingExportWriter;
+import ru.practicum.server.booking.BookingMapper;
+import ru.practicum.server.booking.BookingPage;
 import ru.practicum.server.booking.BookingService;
 import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingBatchResultDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.exceptions.BookingOverlapException;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
@@ -26,10 +34,15 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -99,6 +112,70 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name").value("user"));
     }
 
+    @Test
+    public void shouldAnswerConflictForOverlappingBooking() throws Exception {
+        when(bookingService.create(any(), anyLong())).thenThrow(new BookingOverlapException());
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("BookingOverlapException"))
+                .andExpect(jsonPath("$.description").value("Вещь уже забронирована на пересекающийся период"));
+    }
+
+    @Test
+    public void shouldCreateBookingBatchInRequestOrder() throws Exception {
+        when(bookingService.createAll(anyList(), anyLong())).thenReturn(List.of(
+                BookingMapper.toBatchResultDto(new ValidationIdException("Item не найден")),
+                BookingBatchResultDto.builder().status(200).booking(bookingResponseDto).build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingDto, bookingDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value(404))
+                .andExpect(jsonPath("$[0].error.error").value("ValidationIdException"))
+                .andExpect(jsonPath("$[0].booking").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(200))
+                .andExpect(jsonPath("$[1].booking.id").value(1))
+                .andExpect(jsonPath("$[1].error").doesNotExist());
+    }
+
+    @Test
+    public void shouldStreamExportForOwner() throws Exception {
+        doAnswer(invocation -> {
+            BookingExportWriter writer = invocation.getArgument(1);
+            writer.write(bookingResponseDto);
+            return null;
+        }).when(bookingService).exportForOwner(anyLong(), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export?format=CSV")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\""))
+                .andExpect(content().string(BookingExportWriter.CSV_HEADER + "\n1,1,Дрель," + start + "," + end
+                        + ",1,user,WAITING\n"));
+    }
+
+    @Test
+    public void shouldNotStartExportForUnknownUser() throws Exception {
+        doThrow(new ValidationIdException("Пользователь не найден")).when(bookingService).checkExportAllowed(99L);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void shouldGetBookingsById() throws Exception {
         Integer bookingId = 1;
@@ -120,6 +197,27 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name").value("user"));
     }
 
+    @Test
+    public void shouldAnswerNotModifiedWhileBookingVersionIsUnchanged() throws Exception {
+        bookingResponseDto.setVersion(0L);
+        String eTag = BookingMapper.toETag(bookingResponseDto);
+        when(bookingService.getById(anyLong(), anyLong())).thenReturn(bookingResponseDto);
+
+        mockMvc.perform(get("/bookings/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        bookingResponseDto.setVersion(1L);
+
+        mockMvc.perform(get("/bookings/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, BookingMapper.toETag(bookingResponseDto)));
+    }
+
     @Test
     public void shouldBookingsUpdateUser() throws Exception {
         Integer bookingId = 1;
@@ -196,8 +294,8 @@ public class BookingControllerTest {
     public void shouldBookingsAllReservation() throws Throwable {
         Integer userId = 2;
 
-        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingResponseDto, bookingResponseDto, bookingResponseDto));
+        when(bookingService.getPage(anyLong(), any(), anyString(), anyInt(), anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto, bookingResponseDto, bookingResponseDto), null));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId))
@@ -210,13 +308,56 @@ public class BookingControllerTest {
     public void shouldBookingsAllReservationOwner() throws Throwable {
         Integer userId = 2;
 
-        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingResponseDto, bookingResponseDto));
+        when(bookingService.getPage(anyLong(), any(), anyString(), anyInt(), anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto, bookingResponseDto), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void shouldBookingsAllReservationWithCursor() throws Throwable {
+        Integer userId = 2;
+        BookingCursor cursor = new BookingCursor(start.plusDays(3), 40L);
+
+        when(bookingService.getPageAfter(anyLong(), any(), anyString(), eq(cursor), eq(2)))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto, bookingResponseDto),
+                        BookingCursor.of(bookingResponseDto)));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "2")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(bookingResponseDto).encode()));
+    }
+
+    @Test
+    public void shouldAnswerEmptyListAfterLastCursorPage() throws Throwable {
+        BookingCursor cursor = new BookingCursor(start.plusDays(3), 40L);
+
+        when(bookingService.getPageAfter(anyLong(), any(), anyString(), eq(cursor), eq(2)))
+                .thenReturn(new BookingPage(List.of(), null));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("size", "2")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    public void shouldBookingsAllReservationWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 }
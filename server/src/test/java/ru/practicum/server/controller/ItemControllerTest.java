@@ -8,15 +8,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.server.booking.dto.BookingPeriod;
 import ru.practicum.server.item.Item;
 import ru.practicum.server.item.ItemController;
+import ru.practicum.server.item.ItemMapper;
 import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
 import ru.practicum.server.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -24,6 +29,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -104,6 +111,32 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value("true"));
     }
 
+    @Test
+    public void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        itemResponseDto.setVersion(3L);
+        String eTag = ItemMapper.toETag(itemResponseDto);
+        when(itemService.getById(anyLong(), anyLong())).thenReturn(itemResponseDto);
+
+        mockMvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        mockMvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        itemResponseDto.setVersion(4L);
+
+        mockMvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
     @Test
     public void shouldItemWithoutXSharerUserId() throws Exception {
         Item item = new Item(2L, "Дрель", "Простая дрель", owner, true, null);
@@ -165,7 +198,8 @@ public class ItemControllerTest {
     public void shouldSearh() throws Exception {
         Integer userId = 1;
 
-        when(itemService.search(anyString())).thenReturn(List.of(itemResponseDto, itemResponseDto));
+        when(itemService.search(anyString(), isNull(), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(itemResponseDto, itemResponseDto));
 
         mockMvc.perform(get("/items/search?text=дрель")
                         .header("X-Sharer-User-Id", userId))
@@ -175,4 +209,42 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description").value("Простая дрель"))
                 .andExpect(jsonPath("$[0].available").value("true"));
     }
+
+    @Test
+    public void shouldSearchFreeInPeriod() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.search("дрель", start, start.plusDays(3), 0, 10)).thenReturn(List.of(itemResponseDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("start", "2030-01-01T00:00:00")
+                        .param("end", "2030-01-04T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Дрель"));
+    }
+
+    @Test
+    public void shouldGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemService.getAvailability(1L, from, to)).thenReturn(ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new BookingPeriod(from.plusDays(2), from.plusDays(3))))
+                .free(List.of(new BookingPeriod(from, from.plusDays(2)),
+                        new BookingPeriod(from.plusDays(3), to)))
+                .build());
+
+        mockMvc.perform(get("/items/{id}/availability", 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].start").value("2030-01-03T00:00:00"))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].end").value("2030-01-11T00:00:00"));
+    }
 }
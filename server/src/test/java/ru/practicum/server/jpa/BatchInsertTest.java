@@ -0,0 +1,118 @@
+package ru.practicum.server.jpa;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что saveAll вставляет строки пакетами JDBC по hibernate.jdbc.batch_size, а не по одной:
+ * BatchCounter считает вызовы executeBatch, статистика Hibernate - подготовленные запросы.
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.properties.hibernate.session.events.auto=ru.practicum.server.jpa.BatchInsertTest$BatchCounter"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BatchInsertTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final int ROWS = 120;
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final UserRepository userRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "batch-owner@test.com"));
+        booker = userRepository.save(new User(null, "Booker", "batch-booker@test.com"));
+    }
+
+    @Test
+    public void testItemsAreSavedInBatches() {
+        List<Item> items = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Item(null, "Item " + i, "Description", owner, true, null))
+                .collect(Collectors.toList());
+
+        assertBatched(() -> itemRepository.saveAll(items));
+        assertEquals(ROWS, itemRepository.findAllViewsByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    public void testBookingsAreSavedInBatches() {
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Ударная", owner, true, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ножовка", owner, true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Booking(null, i % 2 == 0 ? drill : saw, start.plusDays(i), start.plusDays(i + 1),
+                        booker, Status.WAITING))
+                .collect(Collectors.toList());
+
+        assertBatched(() -> bookingRepository.saveAll(bookings));
+        assertEquals(ROWS, bookingRepository.count());
+    }
+
+    private void assertBatched(Runnable save) {
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BatchCounter.BATCHES.set(0);
+
+        save.run();
+        entityManager.flush();
+
+        int batches = (ROWS + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertEquals(batches, BatchCounter.BATCHES.get());
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared <= 2L * batches + 1,
+                () -> "На " + ROWS + " строк подготовлено " + prepared + " запросов");
+    }
+
+    public static class BatchCounter extends BaseSessionEventListener {
+
+        static final AtomicInteger BATCHES = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            BATCHES.incrementAndGet();
+        }
+    }
+}
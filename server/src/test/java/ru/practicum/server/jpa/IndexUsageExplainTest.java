@@ -0,0 +1,167 @@
+package ru.practicum.server.jpa;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверяет по EXPLAIN, что запросы BookingRepository (списки - по роли и State), ItemRepository, CommentRepository
+ * и ItemRequestRepository не переходят к полному сканированию таблиц, и что для каждого из них в миграциях
+ * объявлен составной индекс.
+ * H2 сам создаёт индексы под внешние ключи и может выбрать их, а PostgreSQL таких индексов не создаёт,
+ * поэтому наличие объявленного индекса проверяется отдельно.
+ * Объём набора задаётся свойством shareit.explain.bookings (по умолчанию 100 000 бронирований, чтобы не замедлять
+ * обычную сборку); полный прогон на 1М строк: mvn test -Dtest=IndexUsageExplainTest -Dshareit.explain.bookings=1000000
+ */
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class IndexUsageExplainTest {
+
+    private static final String NOW = "TIMESTAMP '2026-01-01 00:00:00'";
+
+    private static final long BOOKINGS = Long.getLong("shareit.explain.bookings", 100_000);
+    private static final long USERS = BOOKINGS / 100;
+    private static final long REQUESTS = BOOKINGS / 20;
+    private static final long ITEMS = BOOKINGS / 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("INSERT INTO users (user_id, email, name) " +
+                "SELECT X, 'user' || X || '@mail.ru', 'User ' || X FROM SYSTEM_RANGE(1, " + USERS + ")");
+        jdbcTemplate.execute("INSERT INTO requests (request_id, description, created, requestor) " +
+                "SELECT X, 'Request ' || X, DATEADD('MINUTE', X, " + NOW + "), MOD(X, " + USERS + ") + 1 " +
+                "FROM SYSTEM_RANGE(1, " + REQUESTS + ")");
+        jdbcTemplate.execute("INSERT INTO items (item_id, name, description, available, user_id, request) " +
+                "SELECT X, 'Item ' || X, 'Description ' || X, MOD(X, 2) = 0, MOD(X, " + USERS + ") + 1, " +
+                "CASE WHEN MOD(X, 5) = 0 THEN MOD(X, " + REQUESTS + ") + 1 END " +
+                "FROM SYSTEM_RANGE(1, " + ITEMS + ")");
+        jdbcTemplate.execute("INSERT INTO bookings (booking_id, item_id, start_date, end_date, booker_id, status) " +
+                "SELECT X, MOD(X, " + ITEMS + ") + 1, " +
+                "DATEADD('MINUTE', MOD(X * 7919, " + BOOKINGS + ") - " + BOOKINGS / 2 + ", " + NOW + "), " +
+                "DATEADD('MINUTE', MOD(X * 7919, " + BOOKINGS + ") - " + BOOKINGS / 2 + " + 120, " + NOW + "), " +
+                "MOD(X * 31, " + USERS + ") + 1, " +
+                "CASE MOD(X, 3) WHEN 0 THEN 'APPROVED' WHEN 1 THEN 'WAITING' ELSE 'REJECTED' END " +
+                "FROM SYSTEM_RANGE(1, " + BOOKINGS + ")");
+        jdbcTemplate.execute("INSERT INTO comments (comment_id, text, item_id, author_name, created) " +
+                "SELECT X, 'Comment ' || X, MOD(X, " + ITEMS + ") + 1, 'User ' || (MOD(X, " + USERS + ") + 1), " +
+                NOW + " FROM SYSTEM_RANGE(1, " + ITEMS + ")");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void shouldBeServedByIndex(String name, String index, String columns, String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        String indexColumns = String.join(", ", jdbcTemplate.queryForList(
+                "SELECT LOWER(COLUMN_NAME) || CASE WHEN ORDERING_SPECIFICATION = 'DESC' THEN ' DESC' ELSE '' END " +
+                        "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION",
+                String.class, index.toUpperCase()));
+
+        assertFalse(plan.contains(".tableScan"), () -> name + " выполняется полным сканированием:\n" + plan);
+        assertEquals(columns, indexColumns, () -> name + ": в миграциях нет индекса " + index + " (" + columns + ")");
+    }
+
+    private static Stream<Arguments> queries() {
+        String bookerStart = "bookings_booker_start_idx";
+        String itemStart = "bookings_item_start_idx";
+        String page = " ORDER BY start_date DESC, booking_id DESC LIMIT 10";
+        String ownerPage = " ORDER BY b.start_date DESC, b.booking_id DESC LIMIT 10";
+        String ownerBookings = "SELECT b.* FROM bookings AS b JOIN items AS i ON i.item_id = b.item_id " +
+                "WHERE i.user_id = 42 ";
+        return Stream.of(
+                Arguments.of("booker ALL", bookerStart, "booker_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42" + page),
+                Arguments.of("booker CURRENT",
+                        bookerStart, "booker_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND start_date < " + NOW +
+                                " AND end_date > " + NOW + page),
+                Arguments.of("booker FUTURE",
+                        bookerStart, "booker_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND start_date > " + NOW + page),
+                Arguments.of("booker PAST",
+                        bookerStart, "booker_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND end_date < " + NOW + page),
+                Arguments.of("booker WAITING",
+                        "bookings_booker_status_start_idx", "booker_id, status, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND status = 'WAITING'" + page),
+                Arguments.of("booker ALL after cursor", bookerStart, "booker_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND (start_date < " + NOW +
+                                " OR (start_date = " + NOW + " AND booking_id < 500))" + page),
+                Arguments.of("owner ALL", itemStart, "item_id, start_date DESC",
+                        ownerBookings + ownerPage),
+                Arguments.of("owner CURRENT",
+                        itemStart, "item_id, start_date DESC",
+                        ownerBookings + "AND b.start_date < " + NOW + " AND b.end_date > " + NOW +
+                                ownerPage),
+                Arguments.of("owner FUTURE", itemStart, "item_id, start_date DESC",
+                        ownerBookings + "AND b.start_date > " + NOW + ownerPage),
+                Arguments.of("owner PAST", itemStart, "item_id, start_date DESC",
+                        ownerBookings + "AND b.end_date < " + NOW + ownerPage),
+                Arguments.of("owner REJECTED",
+                        "bookings_item_status_start_idx", "item_id, status, start_date DESC",
+                        ownerBookings + "AND b.status = 'REJECTED'" + ownerPage),
+                Arguments.of("findLastAndNextApproved",
+                        "bookings_item_status_start_idx", "item_id, status, start_date DESC",
+                        "SELECT b.booking_id FROM bookings AS b JOIN items AS i ON i.item_id = b.item_id " +
+                                "WHERE i.user_id = 42 AND b.item_id IN (42, 1042, 2042) " +
+                                "AND b.status = 'APPROVED' AND b.start_date < " + NOW +
+                                " ORDER BY b.start_date DESC"),
+                Arguments.of("findAllByBookerIdAndItemIdAndStatusNotAndStartBefore",
+                        itemStart, "item_id, start_date DESC",
+                        "SELECT * FROM bookings WHERE booker_id = 42 AND item_id = 42 " +
+                                "AND status <> 'REJECTED' AND start_date < " + NOW),
+                Arguments.of("findPeriods",
+                        "bookings_item_status_start_idx", "item_id, status, start_date DESC",
+                        "SELECT start_date, end_date FROM bookings WHERE item_id = 42 " +
+                                "AND status IN ('WAITING', 'APPROVED', 'COMPLETED') AND start_date >= " + NOW +
+                                " AND start_date < DATEADD('YEAR', 1, " + NOW + ") ORDER BY start_date"),
+                Arguments.of("findPeriodsBefore",
+                        "bookings_item_status_start_idx", "item_id, status, start_date DESC",
+                        "SELECT start_date, end_date FROM bookings WHERE item_id = 42 " +
+                                "AND status IN ('WAITING', 'APPROVED', 'COMPLETED') AND start_date < " + NOW +
+                                " ORDER BY start_date DESC LIMIT 1"),
+                Arguments.of("expireWaiting",
+                        "bookings_waiting_start_idx", "status, start_date",
+                        "SELECT booking_id FROM bookings WHERE status = 'WAITING' AND start_date < " + NOW +
+                                " ORDER BY start_date LIMIT 1000"),
+                Arguments.of("completeApproved",
+                        "bookings_approved_end_idx", "status, end_date",
+                        "SELECT booking_id FROM bookings WHERE status = 'APPROVED' AND end_date < " + NOW +
+                                " ORDER BY end_date LIMIT 1000"),
+                Arguments.of("searchFreeViews NOT EXISTS",
+                        "bookings_item_end_idx", "item_id, end_date",
+                        "SELECT i.item_id FROM items AS i WHERE i.item_id IN (42, 1042, 2042) " +
+                                "AND NOT EXISTS (SELECT b.booking_id FROM bookings AS b WHERE b.item_id = i.item_id " +
+                                "AND b.status IN ('WAITING', 'APPROVED', 'COMPLETED') AND b.end_date > " + NOW +
+                                " AND b.start_date < DATEADD('DAY', 7, " + NOW + "))"),
+                Arguments.of("findAllByOwnerOrderById", "items_user_idx", "user_id",
+                        "SELECT * FROM items WHERE user_id = 42 ORDER BY item_id"),
+                Arguments.of("findAllByRequestIdIn", "items_request_idx", "request",
+                        "SELECT * FROM items WHERE request IN (5, 10, 15)"),
+                Arguments.of("findAllByItemId", "comments_item_idx", "item_id",
+                        "SELECT * FROM comments WHERE item_id = 42"),
+                Arguments.of("findAllByAndAuthorName", "comments_author_name_idx", "author_name",
+                        "SELECT * FROM comments WHERE author_name = 'User 42'"),
+                Arguments.of("findAllByRequestorOrderByCreatedDesc",
+                        "requests_requestor_created_idx", "requestor, created DESC",
+                        "SELECT * FROM requests WHERE requestor = 42 ORDER BY created DESC"),
+                Arguments.of("findAllByRequestorIsNotOrderByCreatedDesc", "requests_created_idx", "created DESC",
+                        "SELECT * FROM requests WHERE requestor <> 42 ORDER BY created DESC LIMIT 10"));
+    }
+}
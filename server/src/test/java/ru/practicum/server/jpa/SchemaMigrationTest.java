@@ -0,0 +1,66 @@
+package ru.practicum.server.jpa;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class SchemaMigrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRestartOnMigratedDatabaseKeepsData() {
+        jdbcTemplate.update("INSERT INTO users (email, name) VALUES ('keep@mail.ru', 'Keep')");
+
+        MigrateResult result = flyway().migrate();
+
+        assertEquals(0, result.migrationsExecuted);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = 'keep@mail.ru'", Integer.class));
+        jdbcTemplate.update("DELETE FROM users WHERE email = 'keep@mail.ru'");
+    }
+
+    @Test
+    void testLegacyDatabaseIsBaselinedWithoutRebuild() {
+        Flyway flyway = flyway();
+        flyway.clean();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__create_schema.sql")).execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (email, name) VALUES ('legacy@mail.ru', 'Legacy')");
+
+        MigrateResult result = flyway.migrate();
+
+        assertEquals("1", result.initialSchemaVersion);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = 'legacy@mail.ru'", Integer.class));
+        assertEquals(4, result.migrationsExecuted);
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .cleanDisabled(false)
+                .load();
+    }
+}
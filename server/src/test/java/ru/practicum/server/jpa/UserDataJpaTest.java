@@ -51,8 +51,8 @@ public class UserDataJpaTest {
         Assertions.assertThat(retrievedUser).isEqualTo(savedUser);
 
         assertThrows(DataIntegrityViolationException.class, () -> {
-            User userDuplicate = new User(3L, "New DoeS", "johndoe@example.com");
-            User savedUserDuplicate = userRepository.save(user);
+            User userDuplicate = new User(null, "New DoeS", "johndoe@example.com");
+            User savedUserDuplicate = userRepository.saveAndFlush(userDuplicate);
         });
     }
 }
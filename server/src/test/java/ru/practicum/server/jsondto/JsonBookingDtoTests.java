@@ -65,7 +65,7 @@ public class JsonBookingDtoTests {
         LocalDateTime start = LocalDateTime.now().withNano(000000);
         LocalDateTime end = LocalDateTime.now().withNano(000000).plusDays(1);
 
-        BookingResponseDto bookingResponseDtoNew = new BookingResponseDto(1L, null, start, end, null, Status.REJECTED);
+        BookingResponseDto bookingResponseDtoNew = new BookingResponseDto(1L, null, start, end, null, Status.REJECTED, null);
 
         JsonContent<BookingResponseDto> result = jsonBookingResponseDto.write(bookingResponseDtoNew);
 
@@ -80,7 +80,7 @@ public class JsonBookingDtoTests {
         LocalDateTime start = LocalDateTime.now().withNano(000000);
         LocalDateTime end = LocalDateTime.now().withNano(000000).plusDays(1);
 
-        BookingResponseDto bookingResponseDtoNew = new BookingResponseDto(1L, new BookingResponseDto.Item(), start, end, new BookingResponseDto.Booker(), Status.REJECTED);
+        BookingResponseDto bookingResponseDtoNew = new BookingResponseDto(1L, new BookingResponseDto.Item(), start, end, new BookingResponseDto.Booker(), Status.REJECTED, null);
 
         JsonContent<BookingResponseDto> result = jsonBookingResponseDto.write(bookingResponseDtoNew);
 
@@ -0,0 +1,162 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.State;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.exceptions.BookingOverlapException;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Проверяет создание бронирований параллельными запросами: из THREADS одновременных бронирований одной вещи
+ * на пересекающиеся периоды проходит ровно одно, а блокировка вещи не задерживает бронирования других вещей.
+ * Изменения коммитятся, поэтому тест не транзакционный и удаляет свои данные сам.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 1000;
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingService bookingService;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    private ExecutorService executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    public void testOnlyOneOfConcurrentOverlappingBookingsWins() throws Exception {
+        Long ownerId = createUser("owner");
+        Long bookerId = createUser("booker");
+        Long itemId = createItem(ownerId);
+        executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Future<BookingResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            BookingDto dto = new BookingDto(null, itemId, start.plusMinutes(i), start.plusDays(1).plusMinutes(i), null);
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return bookingService.create(dto, bookerId);
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        int created = 0;
+        for (Future<BookingResponseDto> result : results) {
+            try {
+                result.get(1, TimeUnit.MINUTES);
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(BookingOverlapException.class, e.getCause());
+            }
+        }
+
+        assertEquals(1, created);
+        assertEquals(1, bookingService.getAllReserve(ownerId, State.ALL, "owner", 0, THREADS).size());
+    }
+
+    @Test
+    public void testLockedItemDoesNotDelayOtherItems() throws Exception {
+        Long ownerId = createUser("owner");
+        Long bookerId = createUser("booker");
+        Long drillId = createItem(ownerId);
+        Long sawId = createItem(ownerId);
+        executor = Executors.newFixedThreadPool(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Future<?> holder = executor.submit(() -> transaction.executeWithoutResult(status -> {
+            itemRepository.findByIdForUpdate(drillId);
+            locked.countDown();
+            await(release);
+        }));
+        locked.await();
+        Future<BookingResponseDto> sameItem = executor.submit(() -> bookingService.create(period(drillId), bookerId));
+
+        BookingResponseDto otherItem = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> bookingService.create(period(sawId), bookerId));
+        assertThrows(TimeoutException.class, () -> sameItem.get(300, TimeUnit.MILLISECONDS));
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertNotNull(otherItem.getId());
+        assertNotNull(sameItem.get(10, TimeUnit.SECONDS).getId());
+    }
+
+    private BookingDto period(Long itemId) {
+        return new BookingDto(null, itemId, start, start.plusDays(1), null);
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.create(new UserDto(null, name, name + userIds.size() + "@concurrency.test")).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    private Long createItem(Long ownerId) {
+        return itemService.create(new ItemDto(null, "Дрель", "Ударная", null, true, null), ownerId).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
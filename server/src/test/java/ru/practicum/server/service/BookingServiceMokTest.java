@@ -20,8 +20,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.anyLong;
 
 @ExtendWith(MockitoExtension.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -74,10 +75,11 @@ class BookingServiceMokTest {
         int size = 10;
 
         User user = new User();
-        List<Booking> bookingList = new ArrayList<>();
+        List<BookingResponseDto> bookingList = new ArrayList<>();
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findAllByState(eq(userId), eq(typeUser.equals("owner")), eq(state),
+                        any(), isNull(), eq(from), eq(size + 1)))
                 .thenReturn(bookingList);
 
         assertThrows(ValidationIdException.class, () -> {
@@ -94,13 +96,14 @@ class BookingServiceMokTest {
         int size = 10;
 
         User user = new User();
-        List<Booking> bookingList = new ArrayList<>();
-        bookingList.add(booking);
-        bookingList.add(booking);
+        List<BookingResponseDto> bookingList = new ArrayList<>();
+        bookingList.add(bookingResponseDto);
+        bookingList.add(bookingResponseDto);
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findAllByState(eq(userId), eq(typeUser.equals("owner")), eq(state),
+                        any(), isNull(), eq(from), eq(size + 1)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -117,13 +120,14 @@ class BookingServiceMokTest {
         int size = 10;
 
         User user = new User();
-        List<Booking> bookingList = new ArrayList<>();
-        bookingList.add(booking);
-        bookingList.add(booking);
+        List<BookingResponseDto> bookingList = new ArrayList<>();
+        bookingList.add(bookingResponseDto);
+        bookingList.add(bookingResponseDto);
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findAllByState(eq(userId), eq(typeUser.equals("owner")), eq(state),
+                        any(), isNull(), eq(from), eq(size + 1)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -140,13 +144,14 @@ class BookingServiceMokTest {
         int size = 10;
 
         User user = new User();
-        List<Booking> bookingList = new ArrayList<>();
-        bookingList.add(booking);
-        bookingList.add(booking);
+        List<BookingResponseDto> bookingList = new ArrayList<>();
+        bookingList.add(bookingResponseDto);
+        bookingList.add(bookingResponseDto);
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any()))
+        Mockito.when(bookingRepository.findAllByState(eq(userId), eq(typeUser.equals("owner")), eq(state),
+                        any(), isNull(), eq(from), eq(size + 1)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -163,13 +168,14 @@ class BookingServiceMokTest {
         int size = 10;
 
         User user = new User();
-        List<Booking> bookingList = new ArrayList<>();
-        bookingList.add(booking);
-        bookingList.add(booking);
+        List<BookingResponseDto> bookingList = new ArrayList<>();
+        bookingList.add(bookingResponseDto);
+        bookingList.add(bookingResponseDto);
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findAllByState(eq(userId), eq(typeUser.equals("owner")), eq(state),
+                        any(), isNull(), eq(from), eq(size + 1)))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
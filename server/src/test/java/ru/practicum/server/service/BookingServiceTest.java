@@ -1,15 +1,21 @@
 package ru.practicum.server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.server.booking.*;
+import ru.practicum.server.booking.dto.BookingBatchResultDto;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.exceptions.BookingOverlapException;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
@@ -17,8 +23,16 @@ import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,6 +53,8 @@ class BookingServiceTest {
 
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @Test
     public void testCreateBooking() {
         User user = new User();
@@ -129,6 +145,97 @@ class BookingServiceTest {
 
     }
 
+    @Test
+    public void testCreateAllKeepsRequestOrder() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Ударная", owner, true, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ножовка", owner, true, null));
+        Item broken = itemRepository.save(new Item(null, "Отвертка", "Сломана", owner, false, null));
+        Item own = itemRepository.save(new Item(null, "Молоток", "Свой", booker, true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+
+        List<BookingBatchResultDto> results = bookingService.createAll(List.of(
+                new BookingDto(null, drill.getId(), start, end, null),
+                new BookingDto(null, drill.getId(), end, start, null),
+                new BookingDto(null, -1L, start, end, null),
+                new BookingDto(null, broken.getId(), start, end, null),
+                new BookingDto(null, own.getId(), start, end, null),
+                new BookingDto(null, saw.getId(), start, end, null)), booker.getId());
+
+        assertEquals(List.of(200, 400, 404, 400, 404, 200),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals("Item не найден", results.get(2).getError().getDescription());
+        BookingResponseDto first = results.get(0).getBooking();
+        BookingResponseDto last = results.get(5).getBooking();
+        assertEquals(drill.getName(), first.getItem().getName());
+        assertEquals(booker.getName(), last.getBooker().getName());
+        assertTrue(first.getId() < last.getId());
+        assertEquals(Status.WAITING, bookingService.getById(booker.getId(), last.getId()).getStatus());
+        assertEquals(saw.getId(), bookingService.getById(owner.getId(), last.getId()).getItem().getId());
+    }
+
+    @Test
+    public void testCreateRejectsOverlappingBooking() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Ударная", owner, true, null));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusDays(30);
+        bookingRepository.save(new Booking(null, drill, start, start.plusDays(2), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, drill, start.plusDays(3), start.plusDays(4), booker, Status.REJECTED));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(
+                new BookingDto(null, drill.getId(), start.plusDays(1), start.plusDays(3), null), booker.getId()));
+        assertNotNull(bookingService.create(
+                new BookingDto(null, drill.getId(), start.plusDays(2), start.plusDays(4), null), booker.getId()));
+    }
+
+    @Test
+    public void testCreateAllRejectsOverlapsWithStoredAndBatchBookings() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Ударная", owner, true, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ножовка", owner, true, null));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusDays(30);
+        bookingRepository.save(new Booking(null, drill, start, start.plusDays(1), booker, Status.WAITING));
+
+        List<BookingBatchResultDto> results = bookingService.createAll(List.of(
+                new BookingDto(null, drill.getId(), start.plusHours(12), start.plusDays(2), null),
+                new BookingDto(null, drill.getId(), start.plusDays(1), start.plusDays(2), null),
+                new BookingDto(null, drill.getId(), start.plusDays(1).plusHours(12), start.plusDays(3), null),
+                new BookingDto(null, saw.getId(), start, start.plusDays(1), null)), booker.getId());
+
+        assertEquals(List.of(409, 200, 409, 200),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals("BookingOverlapException", results.get(0).getError().getError());
+    }
+
+    @Test
+    public void testExportForOwnerAsCsvAndNdjson() throws IOException {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Иван \"Ваня\"", "booker@test.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель, ударная", "Ударная", owner, true, null));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusDays(30);
+        List<Booking> bookings = bookingRepository.saveAll(List.of(
+                new Booking(null, drill, start, start.plusDays(1), booker, Status.APPROVED),
+                new Booking(null, drill, start.plusDays(2), start.plusDays(3), booker, Status.WAITING)));
+
+        String[] csv = export(owner.getId(), ExportFormat.CSV).split("\n");
+        String[] ndjson = export(owner.getId(), ExportFormat.NDJSON).split("\n");
+
+        assertEquals(3, csv.length);
+        assertEquals(BookingExportWriter.CSV_HEADER, csv[0]);
+        assertEquals(bookings.get(1).getId() + "," + drill.getId() + ",\"Дрель, ударная\"," + start.plusDays(2) + ","
+                + start.plusDays(3) + "," + booker.getId() + ",\"Иван \"\"Ваня\"\"\",WAITING", csv[1]);
+        assertEquals(2, ndjson.length);
+        BookingResponseDto first = objectMapper.readValue(ndjson[0], BookingResponseDto.class);
+        assertEquals(bookings.get(1).getId(), first.getId());
+        assertEquals("Дрель, ударная", first.getItem().getName());
+        assertEquals(bookings.get(0).getId(), objectMapper.readValue(ndjson[1], BookingResponseDto.class).getId());
+        assertEquals("", export(booker.getId(), ExportFormat.NDJSON));
+    }
+
     @Test
     public void testSetApproved() {
 
@@ -471,4 +578,111 @@ class BookingServiceTest {
             bookingService.getAllReserve(owner.getId(), State.ALL, "booker", 0, 10);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAllReserveAfterCursor() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", owner, true, null));
+
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime bookingStart = start.plusHours(i / 2);
+            bookingRepository.save(new Booking(null, item, bookingStart, bookingStart.plusHours(1), booker,
+                    Status.WAITING));
+        }
+
+        List<Long> expected = bookingService.getAllReserveAfter(booker.getId(), State.ALL, "booker", null, 5)
+                .stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+        List<Long> paged = new ArrayList<>();
+        BookingCursor cursor = null;
+        for (int page = 0; page < 3; page++) {
+            BookingPage next = bookingService.getPageAfter(owner.getId(), State.FUTURE, "owner", cursor, 2);
+            next.getBookings().forEach(dto -> paged.add(dto.getId()));
+            cursor = next.getNext();
+        }
+
+        assertEquals(expected, paged);
+        assertNull(cursor);
+        for (int i = 1; i < paged.size(); i++) {
+            BookingResponseDto previous = bookingService.getById(booker.getId(), paged.get(i - 1));
+            BookingResponseDto current = bookingService.getById(booker.getId(), paged.get(i));
+            assertFalse(current.getStart().isAfter(previous.getStart()));
+        }
+        BookingPage full = bookingService.getPageAfter(owner.getId(), State.FUTURE, "owner", null, 5);
+        assertEquals(5, full.getBookings().size());
+        assertNull(full.getNext());
+        BookingCursor last = BookingCursor.of(full.getBookings().get(4));
+        assertEquals(List.of(), bookingService.getAllReserveAfter(owner.getId(), State.FUTURE, "owner", last, 2));
+    }
+
+    @Test
+    public void testGetAllReserveFromNotMultipleOfSize() throws Throwable {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", owner, true, null));
+
+        LocalDateTime start = LocalDateTime.now().withNano(0).plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(new Booking(null, item, start.plusHours(i), start.plusHours(i + 1), booker,
+                    Status.WAITING));
+        }
+
+        List<Long> all = bookingService.getAllReserve(booker.getId(), State.ALL, "booker", 0, 5)
+                .stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+        List<Long> page = bookingService.getAllReserve(booker.getId(), State.ALL, "booker", 3, 2)
+                .stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+
+        assertEquals(all.subList(3, 5), page);
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("statesAndRoles")
+    public void testGetAllReserveByStateAndRole(String typeUser, State state, List<String> expected) {
+        User owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Description", owner, true, null));
+        Item bookerItem = itemRepository.save(new Item(null, "Booker item", "Description", booker, true, null));
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Map<Long, String> names = Map.of(
+                bookingRepository.save(new Booking(null, item, now.minusDays(2), now.minusDays(1), booker,
+                        Status.APPROVED)).getId(), "past",
+                bookingRepository.save(new Booking(null, item, now.minusHours(1), now.plusHours(1), booker,
+                        Status.APPROVED)).getId(), "current",
+                bookingRepository.save(new Booking(null, item, now.plusDays(1), now.plusDays(2), booker,
+                        Status.WAITING)).getId(), "waiting",
+                bookingRepository.save(new Booking(null, item, now.plusDays(3), now.plusDays(4), booker,
+                        Status.REJECTED)).getId(), "rejected",
+                bookingRepository.save(new Booking(null, bookerItem, now.plusDays(5), now.plusDays(6), owner,
+                        Status.WAITING)).getId(), "reverse");
+
+        Long userId = typeUser.equals("owner") ? owner.getId() : booker.getId();
+        List<String> actual = bookingService.getAllReserve(userId, state, typeUser, 0, 10).stream()
+                .map(dto -> names.get(dto.getId()))
+                .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    private static Stream<Arguments> statesAndRoles() {
+        Map<State, List<String>> expected = Map.of(
+                State.ALL, List.of("rejected", "waiting", "current", "past"),
+                State.PAST, List.of("past"),
+                State.CURRENT, List.of("current"),
+                State.FUTURE, List.of("rejected", "waiting"),
+                State.WAITING, List.of("waiting"),
+                State.REJECTED, List.of("rejected"));
+        return Stream.of("owner", "booker")
+                .flatMap(typeUser -> Stream.of(State.values())
+                        .map(state -> Arguments.of(typeUser, state, expected.get(state))));
+    }
+
+    private String export(Long ownerId, ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BookingExportWriter writer = new BookingExportWriter(format, out, objectMapper)) {
+            bookingService.exportForOwner(ownerId, writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
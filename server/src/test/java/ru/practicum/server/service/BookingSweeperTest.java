@@ -0,0 +1,199 @@
+package ru.practicum.server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.BookingSweeper;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.item.ItemMapper;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет BookingSweeper: просроченные WAITING переходят в EXPIRED, завершенные APPROVED - в COMPLETED
+ * с событием в outbox на каждое, остальные бронирования не меняются, ETag вещи учитывает новый статус,
+ * а два одновременных запуска переводят каждое бронирование ровно один раз.
+ * Изменения коммитятся, поэтому тест не транзакционный и удаляет свои данные сам.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "shareit.booking.sweeper.enabled=true",
+        "shareit.booking.sweeper.batch-size=50",
+        "shareit.booking.sweeper.delay=3600000"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class BookingSweeperTest {
+
+    private static final int BOOKINGS = 1000;
+
+    private static final long FIRST_ID = -2_000_000;
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private final BookingService bookingService;
+
+    private final BookingSweeper bookingSweeper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        itemId = itemService.create(new ItemDto(null, "Дрель", "Ударная", null, true, null), ownerId).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userIds.forEach(userService::delete);
+        jdbcTemplate.update("DELETE FROM outbox WHERE aggregate_id <= ?", FIRST_ID);
+    }
+
+    @Test
+    public void testMovesOnlyOverdueBookings() {
+        long waitingPast = insert(now.minusDays(2), now.plusDays(1), "WAITING");
+        long waitingFuture = insert(now.plusDays(1), now.plusDays(2), "WAITING");
+        long approvedPast = insert(now.minusDays(3), now.minusDays(2), "APPROVED");
+        long approvedCurrent = insert(now.minusDays(4), now.plusDays(1), "APPROVED");
+        long rejectedPast = insert(now.minusDays(5), now.minusDays(4), "REJECTED");
+        long approvedLater = insert(now.plusDays(3), now.plusDays(4), "WAITING");
+        bookingService.setApproved(ownerId, approvedLater, true);
+        String eTag = ItemMapper.toETag(itemService.getById(itemId, ownerId));
+
+        bookingSweeper.sweep();
+        bookingService.setApproved(ownerId, waitingFuture, false);
+
+        assertEquals(Map.of(waitingPast, "EXPIRED", waitingFuture, "REJECTED", approvedPast, "COMPLETED",
+                approvedCurrent, "APPROVED", rejectedPast, "REJECTED", approvedLater, "APPROVED"), statuses());
+        assertEquals(1L, version(waitingPast));
+        assertEquals(0L, version(approvedCurrent));
+        assertEquals(Map.of(waitingPast, List.of("EXPIRED"), approvedPast, List.of("COMPLETED"),
+                waitingFuture, List.of("REJECTED"), approvedLater, List.of("APPROVED")), events());
+        ItemResponseDto item = itemService.getById(itemId, ownerId);
+        assertEquals(approvedPast, item.getLastBooking().getId());
+        assertNotEquals(eTag, ItemMapper.toETag(item));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> bookingService.setApproved(ownerId, waitingPast, true));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> bookingService.setApproved(ownerId, approvedPast, false));
+        assertTrue(meterRegistry.get("shareit.booking.sweeper.lag").tag("status", "EXPIRED").timer().count() >= 1);
+        assertTrue(meterRegistry.get("shareit.booking.sweeper.run").timer().count() >= 1);
+    }
+
+    @Test
+    public void testConcurrentSweepsMoveEachBookingOnce() throws Exception {
+        jdbcTemplate.execute("INSERT INTO bookings (booking_id, item_id, start_date, end_date, booker_id, status) " +
+                "SELECT " + FIRST_ID + " - X, " + itemId + ", DATEADD('HOUR', -X - 1, CURRENT_TIMESTAMP), " +
+                "DATEADD('HOUR', -X, CURRENT_TIMESTAMP), " + bookerId + ", " +
+                "CASE MOD(X, 2) WHEN 0 THEN 'APPROVED' ELSE 'WAITING' END FROM SYSTEM_RANGE(1, " + BOOKINGS + ")");
+        double before = updated("EXPIRED") + updated("COMPLETED");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<?>> sweeps = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                sweeps.add(executor.submit(() -> {
+                    go.await();
+                    bookingSweeper.sweep();
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> sweep : sweeps) {
+                sweep.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(BOOKINGS, updated("EXPIRED") + updated("COMPLETED") - before);
+        assertEquals(Map.of("EXPIRED", BOOKINGS / 2L, "COMPLETED", BOOKINGS / 2L),
+                statuses().values().stream().collect(Collectors.groupingBy(status -> status, Collectors.counting())));
+        assertEquals(List.of(1L), jdbcTemplate.queryForList(
+                "SELECT DISTINCT version FROM bookings WHERE item_id = ?", Long.class, itemId));
+        assertEquals(statuses().keySet(), events().keySet());
+        assertTrue(events().values().stream().allMatch(events -> events.size() == 1));
+    }
+
+    private long insert(LocalDateTime start, LocalDateTime end, String status) {
+        long id = FIRST_ID - BOOKINGS - statuses().size() - 1;
+        jdbcTemplate.update("INSERT INTO bookings (booking_id, item_id, start_date, end_date, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", id, itemId, start, end, bookerId, status);
+        return id;
+    }
+
+    private Map<Long, String> statuses() {
+        return jdbcTemplate.queryForList("SELECT booking_id, status FROM bookings WHERE item_id = ?", itemId).stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("booking_id")).longValue(),
+                        row -> (String) row.get("status")));
+    }
+
+    /**
+     * Payload событий outbox по id бронирования; outbox_id - первичный ключ, поэтому id событий,
+     * записанных BookingSweeper и через Hibernate, не пересекаются.
+     */
+    private Map<Long, List<String>> events() {
+        return jdbcTemplate.queryForList("SELECT aggregate_id, payload FROM outbox WHERE aggregate_id <= ?",
+                        FIRST_ID).stream()
+                .collect(Collectors.groupingBy(row -> ((Number) row.get("aggregate_id")).longValue(),
+                        Collectors.mapping(row -> (String) row.get("payload"), Collectors.toList())));
+    }
+
+    private Long version(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM bookings WHERE booking_id = ?", Long.class, bookingId);
+    }
+
+    private double updated(String status) {
+        Counter counter = meterRegistry.find("shareit.booking.sweeper.updated").tag("status", status).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.create(new UserDto(null, name, name + userIds.size() + "@sweeper.test")).getId();
+        userIds.add(id);
+        return id;
+    }
+}
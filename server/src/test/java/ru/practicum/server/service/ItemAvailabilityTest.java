@@ -0,0 +1,151 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingPeriod;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.exceptions.ValidationIdException;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemAvailabilityDto;
+import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет календарь доступности вещи: слияние занятых периодов, свободные окна и ответ на год
+ * для вещи с HISTORY бронированиями (по одному каждые 4 часа, около 23 лет), а также поиск вещей,
+ * свободных в периоде. Время ответа на длинной истории меряет ItemAvailabilityBenchmark.
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemAvailabilityTest {
+
+    private static final int HISTORY = 50_000;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2003, 1, 1, 0, 0);
+
+    private final ItemService itemService;
+
+    private final ItemRepository itemRepository;
+
+    private final UserRepository userRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@availability.test"));
+        booker = userRepository.save(new User(null, "Booker", "booker@availability.test"));
+        item = itemRepository.saveAndFlush(new Item(null, "Дрель", "Ударная", owner, true, null));
+    }
+
+    @Test
+    public void testMergesBusyPeriodsAndClipsToRange() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        bookingRepository.saveAll(List.of(
+                new Booking(null, item, from.minusDays(2), from.plusDays(1), booker, Status.APPROVED),
+                new Booking(null, item, from.plusDays(1), from.plusDays(2), booker, Status.WAITING),
+                new Booking(null, item, from.plusDays(3), from.plusDays(4), booker, Status.REJECTED),
+                new Booking(null, item, from.plusDays(5), from.plusDays(6), booker, Status.CANCELED),
+                new Booking(null, item, from.plusDays(7), from.plusDays(8), booker, Status.APPROVED),
+                new Booking(null, item, from.plusDays(9), from.plusDays(12), booker, Status.WAITING)));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), from, from.plusDays(10));
+
+        assertEquals(List.of(
+                new BookingPeriod(from, from.plusDays(2)),
+                new BookingPeriod(from.plusDays(7), from.plusDays(8)),
+                new BookingPeriod(from.plusDays(9), from.plusDays(10))), availability.getBusy());
+        assertEquals(List.of(
+                new BookingPeriod(from.plusDays(2), from.plusDays(7)),
+                new BookingPeriod(from.plusDays(8), from.plusDays(9))), availability.getFree());
+    }
+
+    @Test
+    public void testRejectsReversedPeriodAndUnknownItem() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> itemService.getAvailability(item.getId(), from, from));
+        assertThrows(ValidationIdException.class,
+                () -> itemService.getAvailability(-1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    public void testSearchSkipsItemsBusyInPeriod() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        User owner = item.getOwner();
+        Item saw = itemRepository.save(new Item(null, "Пила для дрели", "Насадка", owner, true, null));
+        Item bit = itemRepository.save(new Item(null, "Сверло", "Для дрели", owner, true, null));
+        itemRepository.save(new Item(null, "Дрель-миксер", "Нет в наличии", owner, false, null));
+        bookingRepository.saveAll(List.of(
+                new Booking(null, item, start.minusDays(1), start.plusDays(3), booker, Status.WAITING),
+                new Booking(null, saw, start.minusDays(1), start, booker, Status.APPROVED),
+                new Booking(null, saw, start.plusDays(3), start.plusDays(4), booker, Status.CANCELED),
+                new Booking(null, bit, start.plusDays(1), start.plusDays(2), booker, Status.APPROVED)));
+
+        assertEquals(List.of(saw.getId()), ids(itemService.search("дрел", start, start.plusDays(5), 0, 10)));
+        assertEquals(List.of(saw.getId(), bit.getId()),
+                ids(itemService.search("дрел", start.plusDays(2), start.plusDays(5), 0, 10)));
+        assertEquals(List.of(item.getId(), saw.getId(), bit.getId()), ids(itemService.search("дрел", 0, 10)));
+    }
+
+    @Test
+    public void testSearchRejectsPartialOrReversedPeriod() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> itemService.search("дрель", start, null, 0, 10));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> itemService.search("дрель", start, start.minusDays(1), 0, 10));
+    }
+
+    @Test
+    public void testAnswersYearOfLongHistory() {
+        jdbcTemplate.execute("INSERT INTO bookings (booking_id, item_id, start_date, end_date, booker_id, status) " +
+                "SELECT -X, " + item.getId() + ", DATEADD('HOUR', X * 4, TIMESTAMP '2003-01-01 00:00:00'), " +
+                "DATEADD('HOUR', X * 4 + 3, TIMESTAMP '2003-01-01 00:00:00'), " + booker.getId() + ", " +
+                "CASE MOD(X, 3) WHEN 0 THEN 'APPROVED' WHEN 1 THEN 'WAITING' ELSE 'REJECTED' END " +
+                "FROM SYSTEM_RANGE(1, " + HISTORY + ")");
+        LocalDateTime from = EPOCH.plusYears(20).plusHours(2);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), from, from.plusYears(1));
+
+        assertEquals(from.plusHours(1), availability.getBusy().get(0).getEnd());
+        assertEquals(availability.getBusy().size() - 1, availability.getFree().size());
+        assertTrue(availability.getBusy().stream().allMatch(period -> !period.getStart().isBefore(from)
+                && !period.getEnd().isAfter(from.plusYears(1))));
+    }
+
+    private static List<Long> ids(List<ItemResponseDto> items) {
+        return items.stream().map(ItemResponseDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.item.InMemoryItemSearch;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemSearch;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.item.dto.ItemView;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
+import ru.practicum.server.utils.FromSizeRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сверяет выдачу InMemoryItemSearch с запросами ItemRepository.searchViews и searchFreeViews после создания,
+ * изменения и удаления вещей и их владельцев.
+ * Изменения коммитятся, поэтому тест не транзакционный и удаляет свои данные сам.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "shareit.search.engine=memory"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class ItemSearchConsistencyTest {
+
+    private static final String[] WORDS = {"Дрель", "дрели", "Шуруповерт", "ударная", "Лестница", "ladder",
+            "LADDER-2", "пила", "пилка", "Перфоратор", "100%", "a_b", "аккумуляторная"};
+
+    private static final String[] QUERIES = {"дрель", "ДРЕЛ", "рел", "пил", "лестница", "add", "der-2", "100%",
+            "0%", "a_b", "_", "%", "-", "ударная дрель", "ль ш", "аккумулятор", "перфоратор пила", "нет такого",
+            " "};
+
+    private final ItemService itemService;
+
+    private final UserService userService;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingService bookingService;
+
+    private final ItemSearch itemSearch;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private Random random;
+
+    @BeforeEach
+    public void setUp() {
+        random = new Random(42);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    public void testInMemorySearchMatchesDatabase() {
+        assertInstanceOf(InMemoryItemSearch.class, itemSearch);
+        List<Long> owners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            owners.add(createUser("owner" + i));
+        }
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Long owner = owners.get(random.nextInt(owners.size()));
+            items.add(itemService.create(new ItemDto(null, phrase(), phrase(), null, random.nextInt(4) > 0, null),
+                    owner).getId());
+        }
+        assertConsistent();
+
+        for (int i = 0; i < 20; i++) {
+            Long itemId = items.get(random.nextInt(items.size()));
+            Long owner = itemRepository.findViewById(itemId).map(ItemView::getOwnerId).orElseThrow();
+            Map<Object, Object> fields = new HashMap<>();
+            fields.put(random.nextBoolean() ? "name" : "description", phrase());
+            fields.put("available", random.nextBoolean());
+            itemService.update(itemId, fields, owner);
+        }
+        for (int i = 0; i < 10; i++) {
+            itemService.delete(items.remove(random.nextInt(items.size())));
+        }
+        assertConsistent();
+
+        userService.update(owners.get(0), Map.of("name", "Переименован"));
+        userService.delete(owners.get(1));
+        userIds.remove(owners.get(1));
+        assertConsistent();
+        assertTrue(itemSearch.search("", 0, Integer.MAX_VALUE).stream()
+                .noneMatch(item -> item.getOwnerId().equals(owners.get(1))));
+        assertTrue(itemSearch.search("", 0, Integer.MAX_VALUE).stream()
+                .filter(item -> item.getOwnerId().equals(owners.get(0)))
+                .allMatch(item -> item.getOwnerName().equals("Переименован")));
+    }
+
+    @Test
+    public void testServiceSearchPagesInMemoryIndex() {
+        Long owner = createUser("pager");
+        for (int i = 0; i < 5; i++) {
+            itemService.create(new ItemDto(null, "Стремянка " + i, "Алюминиевая", null, true, null), owner);
+        }
+
+        List<ItemResponseDto> page = itemService.search("стремянка", 2, 2);
+
+        assertEquals(List.of("Стремянка 2", "Стремянка 3"),
+                page.stream().map(ItemResponseDto::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testInMemoryFreeSearchMatchesDatabase() {
+        Long owner = createUser("lender");
+        Long booker = createUser("renter");
+        LocalDateTime start = LocalDateTime.of(2030, 3, 1, 0, 0);
+        LocalDateTime end = start.plusDays(7);
+        for (int i = 0; i < 40; i++) {
+            Long itemId = itemService.create(new ItemDto(null, "Табурет " + i, phrase(), null, true, null), owner)
+                    .getId();
+            if (i % 4 == 0) {
+                bookingService.create(new BookingDto(null, itemId, start.minusDays(1), start.plusDays(1), null),
+                        booker);
+            } else if (i % 4 == 1) {
+                bookingService.create(new BookingDto(null, itemId, start.minusDays(2), start, null), booker);
+            } else if (i % 4 == 2) {
+                Long bookingId = bookingService.create(
+                        new BookingDto(null, itemId, start.plusDays(1), start.plusDays(2), null), booker).getId();
+                assertEquals(Status.REJECTED, bookingService.setApproved(owner, bookingId, false).getStatus());
+            }
+        }
+
+        for (int[] page : new int[][]{{0, 1000}, {3, 4}, {0, 25}, {27, 10}}) {
+            assertEquals(ids(itemRepository.searchFreeViews("табурет", Status.OCCUPYING, start, end,
+                            new FromSizeRequest(page[0], page[1]))),
+                    ids(itemSearch.searchFree("табурет", start, end, page[0], page[1])),
+                    () -> "Разная страница from=" + page[0] + ", size=" + page[1]);
+        }
+        assertEquals(30, itemService.search("табурет", start, end, 0, 1000).size());
+        assertEquals(40, itemService.search("табурет", 0, 1000).size());
+    }
+
+    private void assertConsistent() {
+        for (String query : QUERIES) {
+            assertEquals(ids(itemRepository.searchViews(query, new FromSizeRequest(0, 1000))),
+                    ids(itemSearch.search(query, 0, 1000)), () -> "Разная выдача для text=\"" + query + "\"");
+            assertEquals(ids(itemRepository.searchViews(query, new FromSizeRequest(3, 4))),
+                    ids(itemSearch.search(query, 3, 4)), () -> "Разная страница для text=\"" + query + "\"");
+        }
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.create(new UserDto(null, name, name + "@search.test")).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    private String phrase() {
+        int length = 1 + random.nextInt(3);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            words.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return String.join(" ", words);
+    }
+
+    private static List<Long> ids(List<ItemView> items) {
+        return items.stream().map(ItemView::getId).collect(Collectors.toList());
+    }
+}
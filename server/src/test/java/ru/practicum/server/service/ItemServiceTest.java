@@ -5,14 +5,17 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingMapper;
 import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingTimeline;
 import ru.practicum.server.booking.Status;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
+import ru.practicum.server.booking.dto.BookingShort;
 import ru.practicum.server.item.*;
 import ru.practicum.server.item.dto.*;
 import ru.practicum.server.user.User;
@@ -24,6 +27,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -97,6 +101,35 @@ class ItemServiceTest {
         assertEquals(2, itemResponseDtoList.size());
     }
 
+    @Test
+    public void testGetAllWithLastAndNextBooking() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        Item item = itemRepository.save(new Item(null, "Item 1", "Test Description", owner, true, null));
+        Item otherItem = itemRepository.save(new Item(null, "Item 2", "Test Description 2", owner, true, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        bookingRepository.save(new Booking(null, item, now.minusDays(10), now.minusDays(9), booker, Status.APPROVED));
+        Booking last = bookingRepository.save(
+                new Booking(null, item, now.minusDays(2), now.minusDays(1), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, item, now.minusHours(1), now.plusHours(1), booker, Status.REJECTED));
+        Booking next = bookingRepository.save(
+                new Booking(null, item, now.plusDays(1), now.plusDays(2), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, item, now.plusDays(5), now.plusDays(6), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, otherItem, now.plusDays(1), now.plusDays(2), booker, Status.WAITING));
+
+        List<ItemResponseDto> items = itemService.getAll(owner.getId());
+
+        assertEquals(2, items.size());
+        assertEquals(last.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(booker.getId(), items.get(0).getLastBooking().getBookerId());
+        assertEquals(next.getId(), items.get(0).getNextBooking().getId());
+        assertEquals(next.getStart(), items.get(0).getNextBooking().getStart());
+        assertNull(items.get(1).getLastBooking());
+        assertNull(items.get(1).getNextBooking());
+        assertNull(itemService.getById(item.getId(), booker.getId()).getNextBooking());
+    }
+
     @Test
     public void testGetById() {
 
@@ -189,13 +222,57 @@ class ItemServiceTest {
         item3.setOwner(user);
         itemRepository.save(item3);
 
-        List<ItemResponseDto> result = itemService.search("test");
+        List<ItemResponseDto> result = itemService.search("test", 0, 10);
 
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(item -> item.getName().equals("Test Item 1")));
         assertTrue(result.stream().anyMatch(item -> item.getName().equals("Test Item 2")));
     }
 
+    @Test
+    public void testSearchExcludesUnavailableAndRanksNameMatchesFirst() {
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setName("Test User");
+        userRepository.save(user);
+
+        Item byDescription = itemRepository.save(new Item(null, "Шуруповерт", "Почти дрель", user, true, null));
+        Item unavailable = itemRepository.save(new Item(null, "Дрель старая", "Не работает", user, false, null));
+        Item inName = itemRepository.save(new Item(null, "Ударная дрель", "Мощная", user, true, null));
+        Item prefix = itemRepository.save(new Item(null, "Дрель", "Простая", user, true, null));
+
+        List<ItemResponseDto> result = itemService.search("дрель", 0, 10);
+
+        assertEquals(List.of(prefix.getId(), inName.getId(), byDescription.getId()),
+                result.stream().map(ItemResponseDto::getId).collect(Collectors.toList()));
+        assertTrue(result.stream().noneMatch(item -> item.getId().equals(unavailable.getId())));
+
+        List<ItemResponseDto> page = itemService.search("ДРЕЛЬ", 1, 1);
+
+        assertEquals(1, page.size());
+        assertEquals(inName.getId(), page.get(0).getId());
+    }
+
+    @Test
+    public void testETagChangesWithItemVersionAndComments() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая", owner, true, null));
+        String created = ItemMapper.toETag(itemService.getById(item.getId(), booker.getId()));
+
+        assertEquals(created, ItemMapper.toETag(itemService.getById(item.getId(), booker.getId())));
+
+        itemService.update(item.getId(), Map.of("description", "Ударная", "version", 100), owner.getId());
+        String updated = ItemMapper.toETag(itemService.getById(item.getId(), booker.getId()));
+
+        assertNotEquals(created, updated);
+        assertEquals(1L, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+
+        commentRepository.save(new Comment(null, "Отличная", item, booker.getName(), LocalDateTime.now()));
+
+        assertNotEquals(updated, ItemMapper.toETag(itemService.getById(item.getId(), booker.getId())));
+    }
+
     @Test
     public void testCreateComment() {
         User user = new User();
@@ -251,7 +328,7 @@ class ItemServiceTest {
         List<CommentResponseDto> comments = new ArrayList<>();
 
         ItemResponseDto itemResponseDto = new ItemResponseDto(id, name, description, owner, available,
-                requestId, lastBooking, nextBooking, comments);
+                requestId, lastBooking, nextBooking, comments, null);
 
         Assertions.assertEquals(id, itemResponseDto.getId());
         Assertions.assertEquals(name, itemResponseDto.getName());
@@ -273,7 +350,7 @@ class ItemServiceTest {
         Boolean available = true;
         Long requestId = 2L;
 
-        ItemDtoShort itemDtoShort = new ItemDtoShort(id, name, description, available, requestId);
+        ItemDtoShort itemDtoShort = new ItemDtoShort(id, name, description, available, requestId, null);
 
         Assertions.assertEquals(id, itemDtoShort.getId());
         Assertions.assertEquals(name, itemDtoShort.getName());
@@ -342,10 +419,49 @@ class ItemServiceTest {
         expectedDto.setComments(comments);
         expectedDto.setRequestId(requestId);
 
-        ItemResponseDto actualDto = ItemMapper.toItemResponseDto(item, bookings, comments);
+        ItemResponseDto actualDto = ItemMapper.toItemResponseDto(item,
+                BookingTimeline.of(toBookingShorts(bookings), LocalDateTime.now()), comments);
 
         Assertions.assertEquals(expectedDto.getId(), actualDto.getId());
         Assertions.assertEquals(expectedDto.getName(), actualDto.getName());
         Assertions.assertEquals(expectedDto.getDescription(), actualDto.getDescription());
+        Assertions.assertEquals(expectedDto.getLastBooking().getId(), actualDto.getLastBooking().getId());
+        Assertions.assertEquals(expectedDto.getNextBooking().getId(), actualDto.getNextBooking().getId());
+    }
+
+    @Test
+    public void testBookingTimelineIgnoresOtherItemsAndNotApproved() {
+        LocalDateTime now = LocalDateTime.now();
+        User booker = new User(3L, "Ivan", "ivan@mail.ru");
+        Item first = new Item(1L, "Дрель", "Простая дрель", null, true, null);
+        Item second = new Item(2L, "Пила", "Простая пила", null, true, null);
+
+        List<Booking> bookings = List.of(
+                new Booking(10L, first, now.minusDays(5), now.minusDays(4), booker, Status.APPROVED),
+                new Booking(11L, first, now.minusDays(2), now.minusDays(1), booker, Status.APPROVED),
+                new Booking(12L, first, now.minusHours(1), now.plusHours(1), booker, Status.REJECTED),
+                new Booking(13L, first, now.plusDays(3), now.plusDays(4), booker, Status.APPROVED),
+                new Booking(14L, first, now.plusDays(1), now.plusDays(2), booker, Status.APPROVED),
+                new Booking(15L, second, now.plusHours(2), now.plusHours(3), booker, Status.WAITING));
+
+        BookingTimeline timeline = BookingTimeline.of(toBookingShorts(bookings), now);
+
+        Assertions.assertEquals(11L, timeline.findLast(first.getId()).orElseThrow().getId());
+        Assertions.assertEquals(14L, timeline.findNext(first.getId()).orElseThrow().getId());
+        Assertions.assertTrue(timeline.findLast(second.getId()).isEmpty());
+        Assertions.assertTrue(timeline.findNext(second.getId()).isEmpty());
+    }
+
+    private static List<BookingShort> toBookingShorts(List<Booking> bookings) {
+        SpelAwareProxyProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+        return bookings.stream()
+                .map(booking -> factory.createProjection(BookingShort.class, Map.of(
+                        "id", booking.getId(),
+                        "itemId", booking.getItem().getId(),
+                        "startDate", booking.getStart(),
+                        "endDate", booking.getEnd(),
+                        "bookerId", booking.getBooker().getId(),
+                        "status", booking.getStatus())))
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package ru.practicum.server.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.outbox.OutboxEvent;
+import ru.practicum.server.outbox.OutboxEventType;
+import ru.practicum.server.outbox.OutboxListener;
+import ru.practicum.server.outbox.OutboxRepository;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет outbox смены статуса бронирования: событие пишется в транзакции setApproved, доставляется
+ * слушателям в фоне и повторяется после ошибки слушателя с растущей паузой, а медленный слушатель
+ * не задерживает setApproved.
+ * Изменения коммитятся, поэтому тест не транзакционный и удаляет свои данные сам.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "shareit.outbox.dispatcher.enabled=true",
+        "shareit.outbox.poll-delay=20",
+        "shareit.outbox.retry-delay=100"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Import(OutboxDispatcherTest.Listeners.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext
+class OutboxDispatcherTest {
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private final BookingService bookingService;
+
+    private final OutboxRepository outboxRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RecordingListener listener;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    @BeforeEach
+    public void setUp() {
+        listener.reset();
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.release();
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    public void testEventIsWrittenInStatusChangeTransaction() throws Exception {
+        Long rolledBack = createBooking(0);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            bookingService.setApproved(ownerId, rolledBack, true);
+            assertTrue(outboxRepository.findAll().stream().anyMatch(event -> event.getAggregateId().equals(rolledBack)
+                    && event.getPayload().equals("APPROVED")));
+            status.setRollbackOnly();
+        });
+        Long approved = createBooking(1);
+
+        bookingService.setApproved(ownerId, approved, false);
+
+        assertEquals("REJECTED", listener.await(approved).getPayload());
+        assertFalse(listener.delivered.containsKey(rolledBack));
+        assertEquals(Status.WAITING, bookingService.getById(ownerId, rolledBack).getStatus());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetried() throws Exception {
+        Long bookingId = createBooking(0);
+        listener.fail(bookingId, 2);
+
+        bookingService.setApproved(ownerId, bookingId, true);
+
+        OutboxEvent event = listener.await(bookingId);
+        assertEquals(2, event.getAttempts());
+        List<Long> attempts = listener.attempts;
+        assertEquals(3, attempts.size());
+        assertTrue(attempts.get(1) - attempts.get(0) >= 100, () -> "Попытки " + attempts);
+        assertTrue(attempts.get(2) - attempts.get(1) >= 200, () -> "Попытки " + attempts);
+        assertTrue(meterRegistry.get("shareit.outbox.failures").counter().count() >= 2);
+        assertTrue(meterRegistry.get("shareit.outbox.dispatch.lag").timer().count() >= 1);
+        assertTrue(meterRegistry.get("shareit.outbox.batch.size").summary().count() >= 3);
+    }
+
+    @Test
+    public void testSlowListenerDoesNotDelayStatusChange() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookingIds.add(createBooking(i));
+        }
+        listener.block();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> bookingIds.forEach(
+                bookingId -> bookingService.setApproved(ownerId, bookingId, true)));
+        assertTrue(listener.blocked.await(10, TimeUnit.SECONDS));
+        listener.release();
+
+        for (Long bookingId : bookingIds) {
+            assertEquals("APPROVED", listener.await(bookingId).getPayload());
+        }
+    }
+
+    private Long createBooking(int day) {
+        Long itemId = itemService.create(new ItemDto(null, "Дрель", "Ударная", null, true, null), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusDays(30 + day);
+        return bookingService.create(new BookingDto(null, itemId, start, start.plusHours(1), null), bookerId).getId();
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.create(new UserDto(null, name, name + userIds.size() + "@outbox.test")).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    @TestConfiguration
+    static class Listeners {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    /**
+     * Запоминает доставленные события по id бронирования. Может падать на событии бронирования failing
+     * failures раз подряд, запоминая время попыток, или ждать release перед обработкой.
+     */
+    static class RecordingListener implements OutboxListener {
+
+        private final Map<Long, OutboxEvent> delivered = new ConcurrentHashMap<>();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private volatile Long failing;
+
+        private final List<Long> attempts = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+        private volatile CountDownLatch released = new CountDownLatch(0);
+
+        @Override
+        public OutboxEventType getType() {
+            return OutboxEventType.BOOKING_STATUS_CHANGED;
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            blocked.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (event.getAggregateId().equals(failing)) {
+                attempts.add(System.currentTimeMillis());
+            }
+            if (event.getAggregateId().equals(failing) && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Слушатель недоступен");
+            }
+            delivered.put(event.getAggregateId(), event);
+        }
+
+        OutboxEvent await(Long bookingId) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (!delivered.containsKey(bookingId) && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertTrue(delivered.containsKey(bookingId), () -> "Событие бронирования " + bookingId + " не доставлено");
+            return delivered.get(bookingId);
+        }
+
+        void fail(Long bookingId, int times) {
+            failures.set(times);
+            failing = bookingId;
+        }
+
+        void block() {
+            blocked = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        void reset() {
+            delivered.clear();
+            attempts.clear();
+            failing = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.server.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.server.exceptions.ValidationIdException;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.request.ItemRequestService;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет кэш второго уровня для User и Item: повторные чтения по id не ходят в базу,
+ * а изменения и удаления через сервисы, в том числе каскадное удаление вещей владельца, видны сразу.
+ * Изменения коммитятся, поэтому тест не транзакционный и удаляет свои данные сам.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheTest {
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private final ItemRequestService itemRequestService;
+
+    private final ItemRepository itemRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userIds.forEach(userService::delete);
+    }
+
+    @Test
+    public void testRepeatedUserLookupsSkipDatabase() {
+        Long userId = createUser("hot");
+        userService.getById(userId);
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            userService.getById(userId);
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(5, statistics.getDomainDataRegionStatistics("users").getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "users", "result", "hit").functionCounter().count() >= 5);
+    }
+
+    @Test
+    public void testUserExistenceCheckInRequestServiceHitsCache() {
+        Long userId = createUser("requestor");
+        userService.getById(userId);
+        statistics.clear();
+
+        itemRequestService.getForUser(userId);
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    }
+
+    @Test
+    public void testItemLookupHitsCacheAndSeesUpdates() {
+        Long ownerId = createUser("owner");
+        Long itemId = itemService.create(new ItemDto(null, "Дрель", "Ударная", null, true, null), ownerId).getId();
+        itemRepository.findById(itemId);
+        statistics.clear();
+
+        assertEquals("Дрель", itemRepository.findById(itemId).orElseThrow().getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        itemService.update(itemId, Map.of("name", "Перфоратор"), ownerId);
+
+        assertEquals("Перфоратор", itemRepository.findById(itemId).orElseThrow().getName());
+    }
+
+    @Test
+    public void testUpdatedAndDeletedUsersAreNotServedFromCache() {
+        Long userId = createUser("renamed");
+        userService.getById(userId);
+
+        userService.update(userId, Map.of("name", "Переименован"));
+        assertEquals("Переименован", userService.getById(userId).getName());
+
+        userService.delete(userId);
+        userIds.remove(userId);
+        assertThrows(ValidationIdException.class, () -> userService.getById(userId));
+    }
+
+    @Test
+    public void testOwnerUpdateKeepsItemsCached() {
+        Long ownerId = createUser("kept");
+        Long itemId = itemService.create(new ItemDto(null, "Пила", "Ножовка", null, true, null), ownerId).getId();
+        itemRepository.findById(itemId);
+
+        userService.update(ownerId, Map.of("name", "Переименован"));
+
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, itemId));
+        assertEquals("Переименован", itemService.getById(itemId, ownerId).getOwner().getName());
+    }
+
+    @Test
+    public void testItemsOfDeletedOwnerAreEvicted() {
+        Long ownerId = createUser("gone");
+        Long itemId = itemService.create(new ItemDto(null, "Пила", "Ножовка", null, true, null), ownerId).getId();
+        itemRepository.findById(itemId);
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, itemId));
+
+        userService.delete(ownerId);
+        userIds.remove(ownerId);
+
+        assertTrue(itemRepository.findById(itemId).isEmpty());
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.create(new UserDto(null, name, name + "@cache.test")).getId();
+        userIds.add(id);
+        return id;
+    }
+}
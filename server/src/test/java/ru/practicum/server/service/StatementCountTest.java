@@ -0,0 +1,162 @@
+package ru.practicum.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.State;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingDto;
+import ru.practicum.server.item.Comment;
+import ru.practicum.server.item.CommentRepository;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestRepository;
+import ru.practicum.server.request.ItemRequestService;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет по статистике Hibernate, что чтение не порождает N+1 запросов:
+ * связи Booking.item, Booking.booker, Item.owner и Comment.item ленивые и подгружаются fetch join,
+ * а списки читаются проекциями и вовсе не загружают сущности в контекст персистентности.
+ */
+@Transactional
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StatementCountTest {
+
+    private static final int ITEMS = 5;
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final UserRepository userRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final ItemRequestRepository requestRepository;
+
+    private final BookingService bookingService;
+
+    private final ItemService itemService;
+
+    private final ItemRequestService itemRequestService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        for (int i = 0; i < ITEMS; i++) {
+            booker = userRepository.save(new User(null, "Booker " + i, "booker" + i + "@test.com"));
+            ItemRequest request = requestRepository.save(new ItemRequest(null, "Request " + i, now, booker.getId()));
+            item = itemRepository.save(new Item(null, "Item " + i, "Description", owner, true, request.getId()));
+            booking = bookingRepository.save(new Booking(null, item, now.minusDays(2), now.minusDays(1), booker,
+                    Status.APPROVED));
+            bookingRepository.save(new Booking(null, item, now.plusDays(1), now.plusDays(2), booker, Status.APPROVED));
+            commentRepository.save(new Comment(null, "Comment " + i, item, owner.getName(), now));
+        }
+    }
+
+    @Test
+    public void testGetAllReserveForOwner() {
+        assertProjection(1, () -> bookingService.getAllReserve(owner.getId(), State.ALL, "owner", 0, 10));
+    }
+
+    @Test
+    public void testGetAllReserveForBooker() {
+        assertProjection(1, () -> bookingService.getAllReserve(booker.getId(), State.ALL, "booker", 0, 10));
+    }
+
+    @Test
+    public void testGetBookingById() {
+        assertStatements(1, () -> bookingService.getById(owner.getId(), booking.getId()));
+    }
+
+    @Test
+    public void testCreateAllLoadsItemsOnce() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<BookingDto> dtos = itemRepository.findAll().stream()
+                .flatMap(bookable -> Stream.of(1, 2, 3).map(days -> new BookingDto(null, bookable.getId(),
+                        start.plusDays(days), start.plusDays(days + 1), null)))
+                .collect(Collectors.toList());
+
+        assertStatements(3, () -> bookingService.createAll(dtos, booker.getId()));
+        assertEquals(ITEMS * 5L, bookingRepository.count());
+    }
+
+    @Test
+    public void testGetAllItems() {
+        assertProjection(4, () -> itemService.getAll(owner.getId()));
+    }
+
+    @Test
+    public void testGetItemById() {
+        assertProjection(3, () -> itemService.getById(item.getId(), owner.getId()));
+    }
+
+    @Test
+    public void testSearchItems() {
+        assertProjection(1, () -> itemService.search("Item", 0, 10));
+    }
+
+    @Test
+    public void testGetOtherUsersRequests() {
+        assertProjection(3, () -> itemRequestService.getOtherUsers(owner.getId(), 0, 10));
+    }
+
+    private void assertProjection(long max, Runnable call) {
+        Statistics statistics = assertStatements(max, call);
+        for (Class<?> entity : List.of(Booking.class, Item.class, Comment.class, ItemRequest.class)) {
+            assertEquals(0, statistics.getEntityStatistics(entity.getName()).getLoadCount(),
+                    () -> "Проекция загрузила сущности " + entity.getSimpleName());
+        }
+    }
+
+    private Statistics assertStatements(long max, Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        call.run();
+
+        long count = statistics.getPrepareStatementCount();
+        assertTrue(count <= max, () -> "Ожидалось не более " + max + " запросов, выполнено " + count);
+        return statistics;
+    }
+}